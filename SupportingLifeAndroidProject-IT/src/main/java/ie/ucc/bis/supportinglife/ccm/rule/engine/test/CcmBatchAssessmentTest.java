@@ -0,0 +1,133 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmAssessmentResultListener;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBatchAssessmentEvaluator;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBenchmarkReport;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmLatencyStatistics;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineUtilities;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This test case evaluates the batch assessment API of the CCM rule
+ * engines (CcmBatchAssessmentEvaluator) using the patient symptoms of
+ * every CCM rule engine test scenario (ccm_rule_*).
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmBatchAssessmentTest extends CcmDiagnosticRuleEngineTest {
+
+	private static final int SYNTHETIC_ASSESSMENT_NUMBER = 100000;
+	private static final int OUTCOME_CHECK_INTERVAL = 997;
+
+	private List<ArrayList<ReviewItem>> scenarioAssessments;
+	private List<List<String>> expectedOutcomes;
+
+    public CcmBatchAssessmentTest() {
+        super();
+    }
+
+    @Override
+    public void setUp() {
+    	super.setUp();
+
+    	// determine the expected outcome of each scenario individually
+    	scenarioAssessments = new ArrayList<ArrayList<ReviewItem>>(CcmRuleScenarios.buildReviewItems(getSupportingLifeActivity()).values());
+    	expectedOutcomes = new ArrayList<List<String>>();
+    	for (ArrayList<ReviewItem> reviewItems : scenarioAssessments) {
+    		setReviewItems(reviewItems);
+    		PatientAssessment patientAssessment = new PatientAssessment();
+    		executeUncachedRuleEngines(patientAssessment);
+    		expectedOutcomes.add(CcmRuleEngineUtilities.describeOutcome(patientAssessment.getDiagnostics()));
+    	}
+    	setReviewItems(new ArrayList<ReviewItem>());
+    }
+
+    /**
+     * Test case to check that a batch evaluation returns, in order, the
+     * same diagnostics as evaluating each assessment individually
+     *
+     */
+    public void testBatchMatchesIndividualAssessments() {
+    	List<PatientAssessment> patientAssessments = new CcmBatchAssessmentEvaluator(getSupportingLifeActivity()).evaluateAll(scenarioAssessments);
+
+    	assertEquals("the batch did not return one result per assessment", scenarioAssessments.size(), patientAssessments.size());
+    	for (int index = 0; index < patientAssessments.size(); index++) {
+    		assertEquals("batch assessment differs from individual assessment",
+    				expectedOutcomes.get(index), CcmRuleEngineUtilities.describeOutcome(patientAssessments.get(index).getDiagnostics()));
+    	}
+    }
+
+    /**
+     * Test case to stream 100,000 synthetic assessments (cycling through the
+     * ccm_rule scenarios) through the batch evaluator and report throughput
+     *
+     */
+    public void testBatchThroughput() {
+    	CcmBatchAssessmentEvaluator batchEvaluator = new CcmBatchAssessmentEvaluator(getSupportingLifeActivity());
+    	final CcmLatencyStatistics batchStatistics = new CcmLatencyStatistics("batch assessment");
+    	final int[] mismatchedAssessments = new int[1];
+    	final long[] previousResultTime = new long[] {System.nanoTime()};
+
+    	int evaluatedAssessments = batchEvaluator.evaluate(new SyntheticAssessmentIterator(SYNTHETIC_ASSESSMENT_NUMBER), new CcmAssessmentResultListener() {
+			@Override
+			public void onAssessmentEvaluated(int assessmentIndex, ArrayList<ReviewItem> reviewItems, PatientAssessment patientAssessment) {
+				long resultTime = System.nanoTime();
+				batchStatistics.record(resultTime - previousResultTime[0]);
+				previousResultTime[0] = resultTime;
+
+				// spot-check results as they stream back
+				if (assessmentIndex % OUTCOME_CHECK_INTERVAL == 0) {
+					List<String> expectedOutcome = expectedOutcomes.get(assessmentIndex % scenarioAssessments.size());
+					if (!expectedOutcome.equals(CcmRuleEngineUtilities.describeOutcome(patientAssessment.getDiagnostics()))) {
+						mismatchedAssessments[0]++;
+					}
+				}
+			}
+		});
+
+    	new CcmBenchmarkReport(getInstrumentation().getTargetContext(), CcmBenchmarkReport.RULE_ENGINE_BENCHMARK_FILE).write("batch_assessment", "synthetic_" + SYNTHETIC_ASSESSMENT_NUMBER, batchStatistics);
+
+    	assertEquals("not every synthetic assessment was evaluated", SYNTHETIC_ASSESSMENT_NUMBER, evaluatedAssessments);
+    	assertEquals("batch assessments differ from individual assessments", 0, mismatchedAssessments[0]);
+    }
+
+    /**
+     * Supplies synthetic assessments by cycling through the
+     * ccm_rule scenarios without holding the batch in memory
+     *
+     */
+    private class SyntheticAssessmentIterator implements Iterator<ArrayList<ReviewItem>> {
+
+    	private final int assessmentNumber;
+    	private int nextAssessment;
+
+    	public SyntheticAssessmentIterator(int assessmentNumber) {
+    		this.assessmentNumber = assessmentNumber;
+    	}
+
+		@Override
+		public boolean hasNext() {
+			return nextAssessment < assessmentNumber;
+		}
+
+		@Override
+		public ArrayList<ReviewItem> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return scenarioAssessments.get(nextAssessment++ % scenarioAssessments.size());
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+    }
+} // end of class
@@ -0,0 +1,95 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBirthDate;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import android.test.AndroidTestCase;
+
+/**
+ * This test case evaluates the parse-once date of birth values
+ * (CcmBirthDate) used by the symptom fingerprint and the random
+ * assessment generator.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmBirthDateTest extends AndroidTestCase {
+
+	private static final int[] PATIENT_AGES_IN_MONTHS = {4, 24, 48, 59};
+	private static final int PARSING_THREADS = 4;
+	private static final int PARSES_PER_THREAD = 5000;
+
+    public CcmBirthDateTest() {
+        super();
+    }
+
+    /**
+     * Test case to check that the age of the patient is determined
+     * correctly from a formatted date of birth
+     *
+     */
+    public void testAgeInMonths() {
+    	for (int ageInMonths : PATIENT_AGES_IN_MONTHS) {
+    		CcmBirthDate birthDate = CcmBirthDate.parse(formatBirthDate(ageInMonths));
+
+    		assertNotNull("date of birth could not be parsed", birthDate);
+    		assertEquals("incorrect age in months", ageInMonths, birthDate.getAgeInMonths());
+    		assertTrue("incorrect age in days", birthDate.getAgeInDays() >= ageInMonths * 28 && birthDate.getAgeInDays() <= ageInMonths * 31);
+    	}
+    	assertNull("invalid date of birth was parsed", CcmBirthDate.parse("not a date"));
+    }
+
+    /**
+     * Test case to check that dates of birth parsed concurrently
+     * agree with those parsed on a single thread
+     *
+     */
+    public void testConcurrentParsing() throws Exception {
+    	final String[] birthDates = new String[PATIENT_AGES_IN_MONTHS.length];
+    	final long[] expectedEpochDays = new long[PATIENT_AGES_IN_MONTHS.length];
+    	for (int index = 0; index < birthDates.length; index++) {
+    		birthDates[index] = formatBirthDate(PATIENT_AGES_IN_MONTHS[index]);
+    		expectedEpochDays[index] = CcmBirthDate.parse(birthDates[index]).getEpochDay();
+    	}
+
+    	ExecutorService executor = Executors.newFixedThreadPool(PARSING_THREADS);
+    	try {
+    		List<Future<Integer>> parsers = new ArrayList<Future<Integer>>();
+    		for (int thread = 0; thread < PARSING_THREADS; thread++) {
+    			parsers.add(executor.submit(new Callable<Integer>() {
+    				@Override
+    				public Integer call() {
+    					int mismatches = 0;
+    					for (int count = 0; count < PARSES_PER_THREAD; count++) {
+    						int index = count % birthDates.length;
+    						CcmBirthDate birthDate = CcmBirthDate.parse(birthDates[index]);
+    						if (birthDate == null || birthDate.getEpochDay() != expectedEpochDays[index]) {
+    							mismatches++;
+    						}
+    					}
+    					return mismatches;
+    				}
+    			}));
+    		}
+    		for (Future<Integer> parser : parsers) {
+    			assertEquals("concurrently parsed date of birth differs", 0, parser.get().intValue());
+    		}
+    	} finally {
+    		executor.shutdownNow();
+    	}
+    }
+
+    private String formatBirthDate(int ageInMonths) {
+    	Calendar cal = Calendar.getInstance(Locale.UK);
+	    cal.add(Calendar.MONTH, (ageInMonths * -1));
+	    return CcmBirthDate.format(cal.getTime());
+    }
+} // end of class
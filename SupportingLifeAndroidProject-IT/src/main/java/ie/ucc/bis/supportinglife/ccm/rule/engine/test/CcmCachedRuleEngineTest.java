@@ -0,0 +1,53 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineUtilities;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This test case checks that the shared (cached) CCM Classification and
+ * Treatment rule engines (see CcmRuleEngineCache) assess the patient of
+ * every CCM rule engine test scenario (ccm_rule_*) exactly as freshly
+ * loaded rule engines do.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmCachedRuleEngineTest extends CcmDiagnosticRuleEngineTest {
+
+	// number of assessments made with the shared rule engines per scenario
+	private static final int CACHED_RUNS = 2;
+
+    public CcmCachedRuleEngineTest() {
+        super();
+    }
+
+    /**
+     * Test case to check that the shared (cached) rule engines assess
+     * each scenario patient exactly as freshly loaded rule engines do,
+     * and that repeated use of the shared rules does not alter the outcome
+     *
+     */
+    public void testCachedRulesMatchUncachedRules() {
+    	Map<String, ArrayList<ReviewItem>> scenarioReviewItems = CcmRuleScenarios.buildReviewItems(getSupportingLifeActivity());
+
+    	for (Map.Entry<String, ArrayList<ReviewItem>> scenario : scenarioReviewItems.entrySet()) {
+    		setReviewItems(scenario.getValue());
+
+    		PatientAssessment uncachedAssessment = new PatientAssessment();
+    		executeUncachedRuleEngines(uncachedAssessment);
+    		List<String> expectedOutcome = CcmRuleEngineUtilities.describeOutcome(uncachedAssessment.getDiagnostics());
+
+    		for (int run = 0; run < CACHED_RUNS; run++) {
+    			PatientAssessment cachedAssessment = new PatientAssessment();
+    			executeRuleEngines(cachedAssessment);
+    			assertEquals(scenario.getKey() + ": cached rule engines assessed the patient differently to uncached rule engines",
+    					expectedOutcome, CcmRuleEngineUtilities.describeOutcome(cachedAssessment.getDiagnostics()));
+    		}
+    	}
+    }
+} // end of class
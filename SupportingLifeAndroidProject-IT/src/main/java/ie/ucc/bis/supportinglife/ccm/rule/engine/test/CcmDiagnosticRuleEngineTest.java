@@ -3,6 +3,9 @@ package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
 import ie.ucc.bis.supportinglife.activity.CcmAssessmentActivity;
 import ie.ucc.bis.supportinglife.activity.SupportingLifeBaseActivity;
 import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmDiagnosticIndex;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineCache;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineMetrics;
 import ie.ucc.bis.supportinglife.domain.PatientAssessment;
 import ie.ucc.bis.supportinglife.rule.engine.ClassificationRuleEngine;
 import ie.ucc.bis.supportinglife.rule.engine.TreatmentRuleEngine;
@@ -33,7 +36,11 @@ public abstract class CcmDiagnosticRuleEngineTest extends ActivityInstrumentatio
 	@Override
 	public void setUp() {
 		setPatientAssessment(new PatientAssessment());
-		setSupportingLifeActivity(getActivity());
+		// an activity may already have been supplied when replaying
+		// the scenario outside of the test runner (see CcmRuleScenarios)
+		if (getSupportingLifeActivity() == null) {
+			setSupportingLifeActivity(getActivity());
+		}
 		setReviewItems(new ArrayList<ReviewItem>());
 		setResources(getSupportingLifeActivity().getApplicationContext().getResources());
 	}
@@ -51,17 +58,69 @@ public abstract class CcmDiagnosticRuleEngineTest extends ActivityInstrumentatio
 	 * 
 	 */
 	protected void executeRuleEngines() {
+		executeRuleEngines(getPatientAssessment());
+	}
+
+	/**
+	 * Indexes the diagnostics of the supplied patient assessment by classification,
+	 * using the classification keys and ids computed once when the rules were read
+	 * 
+	 * Note: test cases opt in to the index; the scenario assertions check the
+	 *       diagnostics through CcmRuleEngineUtilities, as the rule engines do not
+	 *       use the index
+	 * 
+	 * @param patientAssessment - assessment for which the rule engines have been executed
+	 * 
+	 * @return CcmDiagnosticIndex
+	 */
+	protected CcmDiagnosticIndex buildDiagnosticIndex(PatientAssessment patientAssessment) {
+		return new CcmDiagnosticIndex(patientAssessment.getDiagnostics(),
+				CcmRuleEngineCache.getOutcomeVocabulary(getSupportingLifeActivity()));
+	}
+
+	/**
+	 * Responsible for executing the Classification and Treatment rule engines to determine
+	 * the classifications and treatments of the supplied patient assessment
+	 * 
+	 * Note: the rule engines are shared across assessments so that the CCM rules
+	 *       are only read once per process (see CcmRuleEngineCache)
+	 * 
+	 * @param patientAssessment
+	 */
+	protected void executeRuleEngines(PatientAssessment patientAssessment) {
+		// 1. Execute the Classification rule engine to determine patient classifications
+        ClassificationRuleEngine classificationRuleEngine = CcmRuleEngineCache.getClassificationRuleEngine(getSupportingLifeActivity());
+        long startTime = CcmRuleEngineMetrics.startTimer();
+        classificationRuleEngine.determinePatientClassifications(getSupportingLifeActivity(), getReviewItems(), patientAssessment, classificationRuleEngine.getSystemCcmClassifications());
+        CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_CLASSIFICATION, startTime);
+        
+        // 2. Execute the Treatment rule engine to determine patient treatments
+        TreatmentRuleEngine treatmentRuleEngine = CcmRuleEngineCache.getTreatmentRuleEngine(getSupportingLifeActivity());
+        startTime = CcmRuleEngineMetrics.startTimer();
+        treatmentRuleEngine.determineCcmTreatments(getSupportingLifeActivity(), getReviewItems(), patientAssessment);
+        CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_TREATMENT, startTime);
+        CcmRuleEngineMetrics.recordClassifications(patientAssessment.getDiagnostics());
+	}
+
+	/**
+	 * Responsible for executing the Classification and Treatment rule engines to determine
+	 * the classifications and treatments of the supplied patient assessment, reading
+	 * the CCM rules afresh rather than using the shared rule engines
+	 * 
+	 * @param patientAssessment
+	 */
+	protected void executeUncachedRuleEngines(PatientAssessment patientAssessment) {
 		// 1. Execute the Classification rule engine to determine patient classifications
         ClassificationRuleEngine classificationRuleEngine = new ClassificationRuleEngine();
         classificationRuleEngine.readCcmClassificationRules(getSupportingLifeActivity());
-        classificationRuleEngine.determinePatientClassifications(getSupportingLifeActivity(), getReviewItems(), getPatientAssessment(), classificationRuleEngine.getSystemCcmClassifications());
+        classificationRuleEngine.determinePatientClassifications(getSupportingLifeActivity(), getReviewItems(), patientAssessment, classificationRuleEngine.getSystemCcmClassifications());
         
         // 2. Execute the Treatment rule engine to determine patient treatments
         TreatmentRuleEngine treatmentRuleEngine = new TreatmentRuleEngine();
         treatmentRuleEngine.readCcmTreatmentRules(getSupportingLifeActivity());
-        treatmentRuleEngine.determineCcmTreatments(getSupportingLifeActivity(), getReviewItems(), getPatientAssessment());
+        treatmentRuleEngine.determineCcmTreatments(getSupportingLifeActivity(), getReviewItems(), patientAssessment);
 	}
-	
+
 	/**
 	 * Getter Method: getSupportingLifeActivity()
 	 */
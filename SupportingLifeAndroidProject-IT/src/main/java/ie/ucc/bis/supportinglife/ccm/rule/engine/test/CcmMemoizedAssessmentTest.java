@@ -0,0 +1,102 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBatchAssessmentEvaluator;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmMemoizedAssessmentEvaluator;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineUtilities;
+import ie.ucc.bis.supportinglife.rule.engine.Diagnostic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.util.Log;
+
+/**
+ * This test case evaluates the memoized CCM rule engine evaluator
+ * (CcmMemoizedAssessmentEvaluator) against the patient symptoms of every
+ * CCM rule engine test scenario (ccm_rule_*) and of random assessments.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmMemoizedAssessmentTest extends CcmDiagnosticRuleEngineTest {
+
+	private static final long RANDOM_SEED = 20131018L;
+	private static final int RANDOM_ASSESSMENT_NUMBER = 5000;
+	private static final int CACHE_CAPACITY = 1024;
+
+	private List<ArrayList<ReviewItem>> scenarioAssessments;
+	private String birthDateSymptomId;
+
+    public CcmMemoizedAssessmentTest() {
+        super();
+    }
+
+    @Override
+    public void setUp() {
+    	super.setUp();
+    	scenarioAssessments = new ArrayList<ArrayList<ReviewItem>>(CcmRuleScenarios.buildReviewItems(getSupportingLifeActivity()).values());
+    	birthDateSymptomId = new CcmSymptomRegistry(getResources()).get(CcmSymptom.DATE_OF_BIRTH).getSymptomId();
+    }
+
+    /**
+     * Test case to check that memoized outcomes are identical to those
+     * determined by executing the rule engines, and that a repeated
+     * assessment is answered from the cache
+     *
+     */
+    public void testMemoizedMatchesUncached() {
+    	CcmBatchAssessmentEvaluator assessmentEvaluator = new CcmBatchAssessmentEvaluator(getSupportingLifeActivity());
+    	CcmMemoizedAssessmentEvaluator memoizedEvaluator = new CcmMemoizedAssessmentEvaluator(getSupportingLifeActivity(), birthDateSymptomId, CACHE_CAPACITY);
+
+    	List<ArrayList<ReviewItem>> assessments = new ArrayList<ArrayList<ReviewItem>>(scenarioAssessments);
+    	CcmRandomAssessmentGenerator generator = new CcmRandomAssessmentGenerator(getResources(), RANDOM_SEED, RANDOM_ASSESSMENT_NUMBER);
+    	while (generator.hasNext()) {
+    		assessments.add(generator.next());
+    	}
+
+    	for (ArrayList<ReviewItem> reviewItems : assessments) {
+    		List<String> expectedOutcome = CcmRuleEngineUtilities.describeOutcome(assessmentEvaluator.evaluate(reviewItems).getDiagnostics());
+
+    		List<Diagnostic> firstDiagnostics = memoizedEvaluator.evaluate(reviewItems);
+    		assertEquals("memoized outcome differs from uncached outcome", expectedOutcome, CcmRuleEngineUtilities.describeOutcome(firstDiagnostics));
+
+    		// 2nd evaluation of the same symptoms must be a cache hit
+    		long hitCount = memoizedEvaluator.getHitCount();
+    		assertSame("repeated assessment was not answered from the cache", firstDiagnostics, memoizedEvaluator.evaluate(reviewItems));
+    		assertEquals("repeated assessment was not counted as a cache hit", hitCount + 1, memoizedEvaluator.getHitCount());
+    	}
+    	Log.i(LOG_TAG, "memoized assessment: hits=" + memoizedEvaluator.getHitCount() + ", misses=" + memoizedEvaluator.getMissCount()
+    			+ ", evictions=" + memoizedEvaluator.getEvictionCount() + ", hitRate=" + memoizedEvaluator.getHitRate());
+
+    	assertTrue("cache grew beyond its capacity", memoizedEvaluator.getSize() <= CACHE_CAPACITY);
+    	assertEquals("incorrect number of evictions", memoizedEvaluator.getMissCount() - memoizedEvaluator.getSize(), memoizedEvaluator.getEvictionCount());
+    }
+
+    /**
+     * Test case to check that the least recently used outcome is evicted
+     * once the cache is full
+     *
+     */
+    public void testLeastRecentlyUsedEviction() {
+    	CcmMemoizedAssessmentEvaluator memoizedEvaluator = new CcmMemoizedAssessmentEvaluator(getSupportingLifeActivity(), birthDateSymptomId, 2);
+    	ArrayList<ReviewItem> firstScenario = scenarioAssessments.get(0);
+    	ArrayList<ReviewItem> secondScenario = scenarioAssessments.get(1);
+    	ArrayList<ReviewItem> thirdScenario = scenarioAssessments.get(2);
+
+    	memoizedEvaluator.evaluate(firstScenario);
+    	memoizedEvaluator.evaluate(secondScenario);
+    	// 1st scenario becomes the most recently used
+    	memoizedEvaluator.evaluate(firstScenario);
+    	// evicts the 2nd scenario
+    	memoizedEvaluator.evaluate(thirdScenario);
+
+    	assertEquals("incorrect number of evictions", 1, memoizedEvaluator.getEvictionCount());
+    	assertEquals("incorrect number of cache hits", 1, memoizedEvaluator.getHitCount());
+
+    	memoizedEvaluator.evaluate(firstScenario);
+    	assertEquals("most recently used outcome was evicted", 2, memoizedEvaluator.getHitCount());
+    	memoizedEvaluator.evaluate(secondScenario);
+    	assertEquals("least recently used outcome was not evicted", 4, memoizedEvaluator.getMissCount());
+    }
+} // end of class
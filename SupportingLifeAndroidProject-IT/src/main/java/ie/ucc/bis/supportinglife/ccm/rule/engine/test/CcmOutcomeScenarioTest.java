@@ -0,0 +1,64 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmDiagnosticIndex;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmOutcomeVocabulary;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineCache;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineUtilities;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+import ie.ucc.bis.supportinglife.rule.engine.Diagnostic;
+import ie.ucc.bis.supportinglife.rule.engine.TreatmentRecommendation;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * This test case checks the CCM outcome vocabulary (CcmOutcomeVocabulary)
+ * against the diagnostics of every CCM rule engine test scenario
+ * (ccm_rule_*), so that the fixed treatment table cannot drift from the
+ * treatment rules unnoticed.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmOutcomeScenarioTest extends CcmDiagnosticRuleEngineTest {
+
+    public CcmOutcomeScenarioTest() {
+        super();
+    }
+
+    /**
+     * Test case to check that every classification and treatment of each
+     * scenario patient has an id in the outcome vocabulary, and that the
+     * diagnostics can be indexed
+     *
+     */
+    public void testScenarioOutcomesListed() {
+    	Map<String, ArrayList<ReviewItem>> scenarioReviewItems = CcmRuleScenarios.buildReviewItems(getSupportingLifeActivity());
+    	CcmOutcomeVocabulary vocabulary = CcmRuleEngineCache.getOutcomeVocabulary(getSupportingLifeActivity());
+
+    	for (Map.Entry<String, ArrayList<ReviewItem>> scenario : scenarioReviewItems.entrySet()) {
+    		setReviewItems(scenario.getValue());
+    		PatientAssessment patientAssessment = new PatientAssessment();
+    		executeRuleEngines(patientAssessment);
+
+    		for (Diagnostic diagnostic : patientAssessment.getDiagnostics()) {
+    			if (!diagnostic.isTreatmentHeader() && !diagnostic.isTreatmentFooter()) {
+    				assertTrue(scenario.getKey() + ": classification has no id: " + diagnostic.getClassification().getName(),
+    						vocabulary.getClassificationId(diagnostic.getClassification().getName()) != CcmOutcomeVocabulary.NO_ID);
+    			}
+    			for (TreatmentRecommendation recommendedTreatment : diagnostic.getTreatmentRecommendations()) {
+    				String treatmentKey = CcmRuleEngineUtilities.normaliseTreatmentDescription(recommendedTreatment.getTreatmentDescription());
+    				assertTrue(scenario.getKey() + ": treatment is not in the treatment table: " + treatmentKey,
+    						vocabulary.getTreatmentId(treatmentKey) != CcmOutcomeVocabulary.NO_ID);
+    			}
+    		}
+
+    		CcmDiagnosticIndex diagnosticIndex = buildDiagnosticIndex(patientAssessment);
+    		assertEquals(scenario.getKey() + ": incorrect number of indexed classifications",
+    				CcmRuleEngineUtilities.calculateStandardClassificationNumber(patientAssessment.getDiagnostics()), diagnosticIndex.getStandardClassificationNumber());
+    		assertEquals(scenario.getKey() + ": incorrect number of indexed treatments",
+    				CcmRuleEngineUtilities.calculateTotalTreatmentNumber(patientAssessment.getDiagnostics()), diagnosticIndex.getTreatmentNumber());
+    	}
+    }
+} // end of class
@@ -0,0 +1,115 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmOutcome;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmOutcomeVocabulary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import android.test.AndroidTestCase;
+
+/**
+ * This test case evaluates the classification and treatment ids of the
+ * CCM outcome vocabulary (CcmOutcomeVocabulary) and the comparison of
+ * outcomes built from them (CcmOutcome).
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmOutcomeVocabularyTest extends AndroidTestCase {
+
+	private static final List<String> CLASSIFICATION_NAMES = Arrays.asList("Fever for last 7 Days", "Convulsions",
+			"Vomits Everything", "Red Eye for 4 Days or more", "Blood In Stool", "Other Problem");
+	private static final String UNLISTED_TREATMENT = "Give zinc supplement";
+
+    public CcmOutcomeVocabularyTest() {
+        super();
+    }
+
+    /**
+     * Test case to check that classification ids follow the sorted
+     * classification names, whatever order the rules list them in
+     *
+     */
+    public void testStableClassificationIds() {
+    	List<String> reversedNames = new ArrayList<String>(CLASSIFICATION_NAMES);
+    	Collections.reverse(reversedNames);
+    	CcmOutcomeVocabulary vocabulary = new CcmOutcomeVocabulary(CLASSIFICATION_NAMES);
+    	CcmOutcomeVocabulary reversedVocabulary = new CcmOutcomeVocabulary(reversedNames);
+
+    	assertEquals("incorrect number of classification ids", CLASSIFICATION_NAMES.size(), vocabulary.getClassificationNumber());
+    	for (String classificationName : CLASSIFICATION_NAMES) {
+    		assertEquals("classification id depends on rule order: " + classificationName,
+    				vocabulary.getClassificationId(classificationName), reversedVocabulary.getClassificationId(classificationName));
+    	}
+    	assertEquals("classification ids are not in sorted order", 0, vocabulary.getClassificationId("Blood In Stool"));
+    	assertEquals("classification ids are not in sorted order", 5, vocabulary.getClassificationId("Vomits Everything"));
+    	assertEquals("classification lookup is not case-insensitive",
+    			vocabulary.getClassificationId("Convulsions"), vocabulary.getClassificationId("CONVULSIONS"));
+    	assertEquals("unknown classification was given an id", CcmOutcomeVocabulary.NO_ID, vocabulary.getClassificationId("Fast Breathing"));
+    }
+
+    /**
+     * Test case to check that treatment ids are taken from the fixed
+     * table of treatment descriptions
+     *
+     */
+    public void testFixedTreatmentIds() {
+    	CcmOutcomeVocabulary vocabulary = new CcmOutcomeVocabulary(CLASSIFICATION_NAMES);
+
+    	for (int treatmentId = 0; treatmentId < vocabulary.getTreatmentNumber(); treatmentId++) {
+    		assertEquals("incorrect treatment id", treatmentId, vocabulary.getTreatmentId(vocabulary.getTreatmentDescription(treatmentId)));
+    	}
+    	assertEquals("unlisted treatment was given an id", CcmOutcomeVocabulary.NO_ID, vocabulary.getTreatmentId(UNLISTED_TREATMENT));
+    }
+
+    /**
+     * Test case to check that outcomes are compared regardless of order
+     *
+     */
+    public void testOutcomeEquality() {
+    	CcmOutcomeVocabulary vocabulary = new CcmOutcomeVocabulary(CLASSIFICATION_NAMES);
+    	CcmOutcome outcome = CcmOutcome.of(vocabulary, new String[] {"Convulsions", "Vomits Everything"},
+    			new String[] {"REFER URGENTLY to health facility", "Write a referral note", "Give ORS"});
+    	CcmOutcome reorderedOutcome = CcmOutcome.of(vocabulary, new String[] {"Vomits Everything", "Convulsions"},
+    			new String[] {"Give ORS", "Write a referral note", "REFER URGENTLY to health facility"});
+    	CcmOutcome otherOutcome = CcmOutcome.of(vocabulary, new String[] {"Convulsions", "Vomits Everything"},
+    			new String[] {"REFER URGENTLY to health facility", "Write a referral note"});
+
+    	assertEquals("reordered outcome is not equal", outcome, reorderedOutcome);
+    	assertEquals("equal outcomes have different hash codes", outcome.hashCode(), reorderedOutcome.hashCode());
+    	assertFalse("outcome without a treatment is equal", outcome.equals(otherOutcome));
+    }
+
+    /**
+     * Test case to check that an outcome cannot be built with a
+     * treatment which is not in the treatment table
+     *
+     */
+    public void testUnlistedTreatmentRejected() {
+    	CcmOutcomeVocabulary vocabulary = new CcmOutcomeVocabulary(CLASSIFICATION_NAMES);
+    	try {
+    		CcmOutcome.of(vocabulary, new String[] {"Convulsions"}, new String[] {UNLISTED_TREATMENT});
+    		fail("outcome was built with an unlisted treatment");
+    	} catch (IllegalArgumentException e) {
+    		// expected
+    	}
+    }
+
+    /**
+     * Test case to check that treatment keys are the normalised treatment
+     * descriptions, and that listed treatments share the key instance
+     * held by the vocabulary
+     *
+     */
+    public void testTreatmentKeys() {
+    	CcmOutcomeVocabulary vocabulary = new CcmOutcomeVocabulary(CLASSIFICATION_NAMES);
+    	String treatmentKey = vocabulary.getTreatmentKey("\tGive\n ORS");
+
+    	assertEquals("treatment key is not normalised", "Give ORS", treatmentKey);
+    	assertSame("equal treatments do not share one key instance", treatmentKey, vocabulary.getTreatmentKey(new String("Give ORS")));
+    	assertEquals("unlisted treatment key is not normalised", UNLISTED_TREATMENT, vocabulary.getTreatmentKey("\t" + UNLISTED_TREATMENT));
+    }
+} // end of class
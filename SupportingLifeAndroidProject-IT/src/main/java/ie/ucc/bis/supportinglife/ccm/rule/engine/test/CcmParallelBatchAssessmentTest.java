@@ -0,0 +1,117 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBatchAssessmentEvaluator;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBenchmarkReport;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmLatencyStatistics;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmParallelBatchAssessmentEvaluator;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineUtilities;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This test case evaluates the parallel batch assessment API of the CCM
+ * rule engines (CcmParallelBatchAssessmentEvaluator) using synthetic
+ * assessments built from every CCM rule engine test scenario (ccm_rule_*).
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmParallelBatchAssessmentTest extends CcmDiagnosticRuleEngineTest {
+
+	private static final int SYNTHETIC_ASSESSMENT_NUMBER = 10000;
+	private static final int WARM_UP_RUNS = 2;
+	private static final int SCALING_RUNS = 3;
+
+	private List<ArrayList<ReviewItem>> syntheticAssessments;
+
+    public CcmParallelBatchAssessmentTest() {
+        super();
+    }
+
+    @Override
+    public void setUp() {
+    	super.setUp();
+
+    	List<ArrayList<ReviewItem>> scenarioAssessments = new ArrayList<ArrayList<ReviewItem>>(CcmRuleScenarios.buildReviewItems(getSupportingLifeActivity()).values());
+    	syntheticAssessments = new ArrayList<ArrayList<ReviewItem>>(SYNTHETIC_ASSESSMENT_NUMBER);
+    	for (int index = 0; index < SYNTHETIC_ASSESSMENT_NUMBER; index++) {
+    		syntheticAssessments.add(scenarioAssessments.get(index % scenarioAssessments.size()));
+    	}
+    }
+
+    /**
+     * Test case to check that a parallel batch evaluation returns exactly
+     * the same diagnostics, in the same order, as a sequential evaluation
+     *
+     */
+    public void testParallelMatchesSequentialAssessments() {
+    	int threadCount = Math.max(Runtime.getRuntime().availableProcessors(), 2);
+    	List<PatientAssessment> sequentialAssessments = new CcmBatchAssessmentEvaluator(getSupportingLifeActivity()).evaluateAll(syntheticAssessments);
+    	CcmParallelBatchAssessmentEvaluator parallelEvaluator = new CcmParallelBatchAssessmentEvaluator(getSupportingLifeActivity(), threadCount);
+    	try {
+    		List<PatientAssessment> parallelAssessments = parallelEvaluator.evaluateAll(syntheticAssessments);
+    		assertMatchesSequential(describeOutcomes(sequentialAssessments), parallelAssessments, threadCount);
+
+    		// a 2nd batch reuses the worker threads and their rule engines
+    		assertMatchesSequential(describeOutcomes(sequentialAssessments), parallelEvaluator.evaluateAll(syntheticAssessments), threadCount);
+    	} finally {
+    		parallelEvaluator.shutdown();
+    	}
+    }
+
+    /**
+     * Benchmark of parallel batch throughput from 1 to N worker threads,
+     * where N is the number of available processors; the results of every
+     * run must match the sequential results whatever the thread count
+     *
+     */
+    public void testParallelScaling() {
+    	List<List<String>> sequentialOutcomes = describeOutcomes(new CcmBatchAssessmentEvaluator(getSupportingLifeActivity()).evaluateAll(syntheticAssessments));
+    	CcmBenchmarkReport benchmarkReport = new CcmBenchmarkReport(getInstrumentation().getTargetContext(), CcmBenchmarkReport.RULE_ENGINE_BENCHMARK_FILE);
+    	int maximumThreads = Runtime.getRuntime().availableProcessors();
+
+    	for (int threadCount = 1; threadCount <= maximumThreads; threadCount++) {
+    		// the worker threads and their rule engines are created before the timed runs
+    		CcmParallelBatchAssessmentEvaluator parallelEvaluator = new CcmParallelBatchAssessmentEvaluator(getSupportingLifeActivity(), threadCount);
+    		try {
+    			// warm up
+    			for (int run = 0; run < WARM_UP_RUNS; run++) {
+    				assertMatchesSequential(sequentialOutcomes, parallelEvaluator.evaluateAll(syntheticAssessments), threadCount);
+    			}
+
+    			// note: each sample is the effective time per assessment, so the
+    			//       reported throughput is assessments per second
+    			CcmLatencyStatistics scalingStatistics = new CcmLatencyStatistics("parallel batch assessment (" + threadCount + " threads)");
+    			for (int run = 0; run < SCALING_RUNS; run++) {
+    				long startTime = System.nanoTime();
+    				List<PatientAssessment> patientAssessments = parallelEvaluator.evaluateAll(syntheticAssessments);
+    				scalingStatistics.record((System.nanoTime() - startTime) / patientAssessments.size());
+    				assertMatchesSequential(sequentialOutcomes, patientAssessments, threadCount);
+    			}
+    			benchmarkReport.write("parallel_batch_assessment", "threads_" + threadCount, scalingStatistics);
+    		} finally {
+    			parallelEvaluator.shutdown();
+    		}
+    	}
+    }
+
+    private List<List<String>> describeOutcomes(List<PatientAssessment> patientAssessments) {
+    	List<List<String>> outcomes = new ArrayList<List<String>>(patientAssessments.size());
+    	for (PatientAssessment patientAssessment : patientAssessments) {
+    		outcomes.add(CcmRuleEngineUtilities.describeOutcome(patientAssessment.getDiagnostics()));
+    	}
+    	return outcomes;
+    }
+
+    private void assertMatchesSequential(List<List<String>> sequentialOutcomes, List<PatientAssessment> parallelAssessments, int threadCount) {
+    	assertEquals("the parallel batch (" + threadCount + " threads) did not return one result per assessment",
+    			sequentialOutcomes.size(), parallelAssessments.size());
+    	for (int index = 0; index < sequentialOutcomes.size(); index++) {
+    		assertEquals("parallel assessment " + index + " (" + threadCount + " threads) differs from sequential assessment",
+    				sequentialOutcomes.get(index), CcmRuleEngineUtilities.describeOutcome(parallelAssessments.get(index).getDiagnostics()));
+    	}
+    }
+} // end of class
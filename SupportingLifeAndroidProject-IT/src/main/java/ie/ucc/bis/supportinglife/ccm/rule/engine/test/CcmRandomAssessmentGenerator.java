@@ -0,0 +1,204 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.assessment.ccm.model.review.CoughDurationCcmReviewItem;
+import ie.ucc.bis.supportinglife.assessment.ccm.model.review.DiarrhoeaDurationCcmReviewItem;
+import ie.ucc.bis.supportinglife.assessment.ccm.model.review.FeverDurationCcmReviewItem;
+import ie.ucc.bis.supportinglife.assessment.ccm.model.review.FeverLaDosageCcmReviewItem;
+import ie.ucc.bis.supportinglife.assessment.ccm.model.review.RedEyesDurationCcmReviewItem;
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.test.CcmSymptomRegistry.Symptom;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBirthDate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import android.content.res.Resources;
+
+/**
+ * This class generates random, but valid, CCM patient assessments from
+ * the CCM symptom vocabulary used by the ccm_rule_* test scenarios.
+ *
+ * Each assessment consists of:
+ *
+ * 		-> a YES / NO answer to each CCM symptom question
+ * 		-> a duration (in days) for each duration question whose
+ * 		   symptom was answered YES (e.g. fever, cough)
+ * 		-> follow-up questions only when their symptom was answered YES
+ * 		   (e.g. 'Vomits Everything' only after 'Vomiting: YES')
+ * 		-> a date of birth between 1 and 59 months before today
+ * 		-> the fever-related LA dosage review item when fever is present
+ *
+ * Generation is seeded so that any failing assessment can be reproduced.
+ * The symptom strings are taken from the CcmSymptomRegistry rather than
+ * being resolved from the resources for every assessment.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRandomAssessmentGenerator implements Iterator<ArrayList<ReviewItem>> {
+
+	private static final String POSITIVE_SYMPTOM_RESPONSE = CcmDiagnosticRuleEngineTest.POSITIVE_SYMPTOM_RESPONSE;
+	private static final String NEGATIVE_SYMPTOM_RESPONSE = CcmDiagnosticRuleEngineTest.NEGATIVE_SYMPTOM_RESPONSE;
+	private static final int MAXIMUM_DURATION_IN_DAYS = 30;
+	private static final int MAXIMUM_AGE_IN_MONTHS = 59;
+
+	// probability of a symptom question being answered YES
+	private static final double POSITIVE_SYMPTOM_PROBABILITY = 0.3;
+
+	private final CcmSymptomRegistry symptomRegistry;
+	private final Random random;
+	private final int assessmentNumber;
+	private int generatedNumber;
+	private StringBuilder description;
+
+	/**
+	 * Constructor
+	 *
+	 * @param resources - used to resolve symptom ids, identifiers and labels
+	 * @param seed - random seed
+	 * @param assessmentNumber - number of assessments to generate
+	 */
+	public CcmRandomAssessmentGenerator(Resources resources, long seed, int assessmentNumber) {
+		this.symptomRegistry = new CcmSymptomRegistry(resources);
+		this.random = new Random(seed);
+		this.assessmentNumber = assessmentNumber;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return generatedNumber < assessmentNumber;
+	}
+
+	@Override
+	public ArrayList<ReviewItem> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		generatedNumber++;
+		description = new StringBuilder();
+		ArrayList<ReviewItem> reviewItems = new ArrayList<ReviewItem>();
+
+		// 1. Patient Details: Date of Birth
+		int ageInMonths = 1 + random.nextInt(MAXIMUM_AGE_IN_MONTHS);
+		Calendar cal = Calendar.getInstance(Locale.UK);
+		cal.add(Calendar.MONTH, (ageInMonths * -1));
+		Symptom birthDate = symptomRegistry.get(CcmSymptom.DATE_OF_BIRTH);
+		ReviewItem birthDateReviewItem = new ReviewItem(birthDate.getLabel(), CcmBirthDate.format(cal.getTime()),
+				birthDate.getSymptomId(), null, -1, birthDate.getIdentifier());
+		reviewItems.add(birthDateReviewItem);
+		description.append("age=").append(ageInMonths).append("m");
+
+		// 2. Fever, Fever Duration and the dependent LA dosage review item
+		if (addSymptom(reviewItems, CcmSymptom.FEVER)) {
+			Symptom feverDuration = symptomRegistry.get(CcmSymptom.FEVER_DURATION);
+			reviewItems.add(new FeverDurationCcmReviewItem(feverDuration.getLabel(), randomDuration(feverDuration),
+					feverDuration.getSymptomId(), null, -1, feverDuration.getIdentifier()));
+			reviewItems.add(new FeverLaDosageCcmReviewItem(null, null,
+					symptomRegistry.get(CcmSymptom.FEVER_LA_DOSAGE).getSymptomId(), null, -1,
+					Arrays.asList(birthDateReviewItem)));
+		}
+
+		// 3. Cough and Cough Duration
+		if (addSymptom(reviewItems, CcmSymptom.COUGH)) {
+			Symptom coughDuration = symptomRegistry.get(CcmSymptom.COUGH_DURATION);
+			reviewItems.add(new CoughDurationCcmReviewItem(coughDuration.getLabel(), randomDuration(coughDuration),
+					coughDuration.getSymptomId(), null, -1, coughDuration.getIdentifier()));
+		}
+
+		// 4. Diarrhoea and Diarrhoea Duration
+		if (addSymptom(reviewItems, CcmSymptom.DIARRHOEA)) {
+			Symptom diarrhoeaDuration = symptomRegistry.get(CcmSymptom.DIARRHOEA_DURATION);
+			reviewItems.add(new DiarrhoeaDurationCcmReviewItem(diarrhoeaDuration.getLabel(), randomDuration(diarrhoeaDuration),
+					diarrhoeaDuration.getSymptomId(), null, -1, diarrhoeaDuration.getIdentifier()));
+		}
+
+		// 5. Blood In Stool
+		addSymptom(reviewItems, CcmSymptom.BLOOD_IN_STOOL);
+
+		// 6. Convulsions
+		addSymptom(reviewItems, CcmSymptom.CONVULSIONS);
+
+		// 7. Difficulty Drinking or Feeding and Not Able To Drink or Feed Anything
+		if (addSymptom(reviewItems, CcmSymptom.DRINK_OR_FEED_DIFFICULTY)) {
+			addSymptom(reviewItems, CcmSymptom.UNABLE_TO_DRINK_OR_FEED);
+		}
+
+		// 8. Vomiting and Vomits Everything
+		if (addSymptom(reviewItems, CcmSymptom.VOMITING)) {
+			addSymptom(reviewItems, CcmSymptom.VOMITS_EVERYTHING);
+		}
+
+		// 9. Red Eye and Red Eye Duration
+		if (addSymptom(reviewItems, CcmSymptom.RED_EYES)) {
+			Symptom redEyesDuration = symptomRegistry.get(CcmSymptom.RED_EYES_DURATION);
+			reviewItems.add(new RedEyesDurationCcmReviewItem(redEyesDuration.getLabel(), randomDuration(redEyesDuration),
+					redEyesDuration.getSymptomId(), null, -1, redEyesDuration.getIdentifier()));
+		}
+
+		// 10. Difficulty in Seeing and Difficulty in Seeing Duration
+		if (addSymptom(reviewItems, CcmSymptom.SEEING_DIFFICULTY)) {
+			Symptom seeingDifficultyDuration = symptomRegistry.get(CcmSymptom.SEEING_DIFFICULTY_DURATION);
+			reviewItems.add(new ReviewItem(seeingDifficultyDuration.getLabel(), randomDuration(seeingDifficultyDuration),
+					seeingDifficultyDuration.getSymptomId(), null, -1, seeingDifficultyDuration.getIdentifier()));
+		}
+
+		// 11. Other Problems which cannot be treated
+		addSymptom(reviewItems, CcmSymptom.CANNOT_TREAT_PROBLEMS);
+
+		return reviewItems;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Answers a symptom question at random and adds the answer
+	 * to the review items
+	 *
+	 * @param reviewItems
+	 * @param ccmSymptom - e.g. CcmSymptom.FEVER
+	 *
+	 * @return boolean - true if the symptom was answered YES
+	 */
+	private boolean addSymptom(ArrayList<ReviewItem> reviewItems, CcmSymptom ccmSymptom) {
+		Symptom symptom = symptomRegistry.get(ccmSymptom);
+		boolean symptomPresent = random.nextDouble() < POSITIVE_SYMPTOM_PROBABILITY;
+		String symptomResponse = symptomPresent ? POSITIVE_SYMPTOM_RESPONSE : NEGATIVE_SYMPTOM_RESPONSE;
+		reviewItems.add(new ReviewItem(symptom.getLabel(), symptomResponse, symptom.getSymptomId(), null, -1, symptom.getIdentifier()));
+		description.append(", ").append(symptom.getName()).append('=').append(symptomResponse);
+		return symptomPresent;
+	}
+
+	/**
+	 * Chooses a duration (in days) for a duration symptom
+	 */
+	private String randomDuration(Symptom durationSymptom) {
+		String duration = String.valueOf(1 + random.nextInt(MAXIMUM_DURATION_IN_DAYS));
+		description.append(", ").append(durationSymptom.getName()).append('=').append(duration);
+		return duration;
+	}
+
+	/**
+	 * Getter Method: getDescription()
+	 *
+	 * i.e. summary of the most recently generated assessment
+	 */
+	public String getDescription() {
+		return description == null ? null : description.toString();
+	}
+
+	/**
+	 * Getter Method: getGeneratedNumber()
+	 */
+	public int getGeneratedNumber() {
+		return generatedNumber;
+	}
+
+} // end of class
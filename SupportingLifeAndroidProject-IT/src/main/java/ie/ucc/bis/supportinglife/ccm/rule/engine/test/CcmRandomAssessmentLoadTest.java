@@ -0,0 +1,136 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBatchAssessmentEvaluator;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBenchmarkReport;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmLatencyStatistics;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+import ie.ucc.bis.supportinglife.rule.engine.Diagnostic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import android.util.Log;
+
+/**
+ * This test case evaluates the CCM Classification and Treatment rule
+ * engines against a large number of randomly generated, but valid,
+ * patient assessments (see CcmRandomAssessmentGenerator).
+ *
+ * Every result is checked against the following invariants:
+ *
+ * 		-> treatment header diagnostics precede all other diagnostics
+ * 		-> treatment footer diagnostics follow all other diagnostics
+ * 		-> every (standard) classification has at least one treatment
+ *
+ * The throughput, latency percentiles and the slowest assessments are
+ * reported.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRandomAssessmentLoadTest extends CcmDiagnosticRuleEngineTest {
+
+	private static final long RANDOM_SEED = 20131018L;
+	private static final int RANDOM_ASSESSMENT_NUMBER = 200000;
+	private static final int SLOWEST_ASSESSMENT_NUMBER = 10;
+
+	private final long[] slowestNanos = new long[SLOWEST_ASSESSMENT_NUMBER];
+	private final String[] slowestDescriptions = new String[SLOWEST_ASSESSMENT_NUMBER];
+
+    public CcmRandomAssessmentLoadTest() {
+        super();
+    }
+
+    /**
+     * Test case to evaluate 200,000 random assessments, checking the
+     * invariants of every result and reporting throughput and the
+     * slowest assessments
+     *
+     */
+    public void testRandomAssessmentLoad() {
+    	CcmBatchAssessmentEvaluator batchEvaluator = new CcmBatchAssessmentEvaluator(getSupportingLifeActivity());
+    	CcmRandomAssessmentGenerator generator = new CcmRandomAssessmentGenerator(getResources(), RANDOM_SEED, RANDOM_ASSESSMENT_NUMBER);
+    	CcmLatencyStatistics loadStatistics = new CcmLatencyStatistics("random assessment");
+    	String invariantViolation = null;
+
+    	while (generator.hasNext()) {
+    		ArrayList<ReviewItem> reviewItems = generator.next();
+
+    		long startTime = System.nanoTime();
+    		PatientAssessment patientAssessment = batchEvaluator.evaluate(reviewItems);
+    		long elapsedNanos = System.nanoTime() - startTime;
+
+    		loadStatistics.record(elapsedNanos);
+    		recordIfSlowest(elapsedNanos, generator.getDescription());
+
+    		if (invariantViolation == null) {
+    			String violation = checkInvariants(patientAssessment.getDiagnostics());
+    			if (violation != null) {
+    				invariantViolation = violation + " [assessment " + generator.getGeneratedNumber() + ": " + generator.getDescription() + "]";
+    			}
+    		}
+    	}
+
+    	Log.i(LOG_TAG, loadStatistics.toString());
+    	for (int index = 0; index < SLOWEST_ASSESSMENT_NUMBER && slowestDescriptions[index] != null; index++) {
+    		Log.i(LOG_TAG, "slowest random assessment " + (index + 1) + ": " + slowestNanos[index] + "ns [" + slowestDescriptions[index] + "]");
+    	}
+    	new CcmBenchmarkReport(getInstrumentation().getTargetContext(), CcmBenchmarkReport.RULE_ENGINE_BENCHMARK_FILE)
+    		.write("random_assessment_load", "seed_" + RANDOM_SEED, loadStatistics);
+
+    	assertEquals("not every random assessment was evaluated", RANDOM_ASSESSMENT_NUMBER, loadStatistics.getSampleCount());
+    	assertNull(invariantViolation, invariantViolation);
+    }
+
+    /**
+     * Checks the diagnostics of a single assessment against the invariants
+     *
+     * @param patientDiagnostics
+     *
+     * @return String - description of the first violation, or null if none
+     */
+    private String checkInvariants(List<Diagnostic> patientDiagnostics) {
+    	boolean standardClassificationSeen = false;
+    	boolean footerSeen = false;
+
+    	for (Diagnostic diagnostic : patientDiagnostics) {
+    		String classificationName = diagnostic.getClassification().getName();
+    		if (diagnostic.isTreatmentHeader()) {
+    			if (standardClassificationSeen || footerSeen) {
+    				return "treatment header '" + classificationName + "' is not at the start of the diagnostics";
+    			}
+    		}
+    		else if (diagnostic.isTreatmentFooter()) {
+    			footerSeen = true;
+    		}
+    		else {
+    			if (footerSeen) {
+    				return "classification '" + classificationName + "' follows a treatment footer";
+    			}
+    			if (diagnostic.getTreatmentRecommendations() == null || diagnostic.getTreatmentRecommendations().isEmpty()) {
+    				return "classification '" + classificationName + "' has no treatments";
+    			}
+    			standardClassificationSeen = true;
+    		}
+    	}
+    	return null;
+    }
+
+    /**
+     * Keeps the slowest assessments seen so far, slowest first
+     */
+    private void recordIfSlowest(long elapsedNanos, String description) {
+    	if (elapsedNanos <= slowestNanos[SLOWEST_ASSESSMENT_NUMBER - 1]) {
+    		return;
+    	}
+    	int index = SLOWEST_ASSESSMENT_NUMBER - 1;
+    	while (index > 0 && slowestNanos[index - 1] < elapsedNanos) {
+    		slowestNanos[index] = slowestNanos[index - 1];
+    		slowestDescriptions[index] = slowestDescriptions[index - 1];
+    		index--;
+    	}
+    	slowestNanos[index] = elapsedNanos;
+    	slowestDescriptions[index] = description;
+    }
+} // end of class
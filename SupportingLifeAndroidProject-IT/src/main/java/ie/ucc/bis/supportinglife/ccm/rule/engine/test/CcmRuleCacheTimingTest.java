@@ -0,0 +1,94 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.R;
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBenchmarkReport;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmLatencyStatistics;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+
+import android.util.Log;
+
+/**
+ * This test case reports the per-assessment latency of the CCM Classification
+ * and Treatment rule engines when the CCM rules are read for every assessment
+ * alongside the latency when the shared (cached) rules are used.
+ *
+ * The test case establishes the following patient criteria:
+ *
+ * 		-> Fever (Reported or now?): YES
+ * 		-> Cough: YES
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRuleCacheTimingTest extends CcmDiagnosticRuleEngineTest {
+
+	private static final int WARM_UP_ASSESSMENTS = 5;
+	private static final int TIMED_ASSESSMENTS = 25;
+	private static final String CACHE_TIMING_SCENARIO = "fever_and_cough";
+
+	private CcmBenchmarkReport benchmarkReport;
+
+    public CcmRuleCacheTimingTest() {
+        super();
+    }
+
+    @Override
+    public void setUp() {
+    	super.setUp();
+    	benchmarkReport = new CcmBenchmarkReport(getInstrumentation().getTargetContext(), CcmBenchmarkReport.RULE_ENGINE_BENCHMARK_FILE);
+
+    	// CONFIGURE THE PATIENT SYMPTOMS
+    	// 1. Fever (Reported or now?): YES
+    	String reviewItemLabel = getResources().getString(R.string.ccm_ask_initial_assessment_review_fever);
+    	String reviewItemSymptomId = getResources().getString(R.string.ccm_ask_initial_assessment_fever_symptom_id);
+    	String reviewItemIdentifier = getResources().getString(R.string.ccm_ask_initial_assessment_fever_id);
+    	getReviewItems().add(new ReviewItem(reviewItemLabel, POSITIVE_SYMPTOM_RESPONSE, reviewItemSymptomId, null, -1, reviewItemIdentifier));
+
+    	// 2. Cough: YES
+    	reviewItemLabel = getResources().getString(R.string.ccm_ask_initial_assessment_review_cough);
+    	reviewItemSymptomId = getResources().getString(R.string.ccm_ask_initial_assessment_cough_symptom_id);
+    	reviewItemIdentifier = getResources().getString(R.string.ccm_ask_initial_assessment_cough_id);
+    	getReviewItems().add(new ReviewItem(reviewItemLabel, POSITIVE_SYMPTOM_RESPONSE, reviewItemSymptomId, null, -1, reviewItemIdentifier));
+    }
+
+    /**
+     * Test case to report the per-assessment latency of assessing a patient
+     * with the shared (cached) rules against reading the CCM rules for every
+     * assessment
+     *
+     * The timings are reported rather than asserted; the cached rule engine
+     * results are checked in CcmCachedRuleEngineTest
+     *
+     */
+    public void testCachedRulesAssessmentLatency() {
+    	CcmLatencyStatistics uncachedAssessment = new CcmLatencyStatistics("uncached rule assessment");
+    	CcmLatencyStatistics cachedAssessment = new CcmLatencyStatistics("cached rule assessment");
+
+    	// 1. warm up both paths so that class loading and the initial
+    	//    rule read are not included in the timings
+    	for (int iteration = 0; iteration < WARM_UP_ASSESSMENTS + TIMED_ASSESSMENTS; iteration++) {
+    		long startTime = System.nanoTime();
+    		executeUncachedRuleEngines(new PatientAssessment());
+    		long uncachedNanos = System.nanoTime() - startTime;
+
+    		startTime = System.nanoTime();
+    		executeRuleEngines(new PatientAssessment());
+    		long cachedNanos = System.nanoTime() - startTime;
+
+    		// 2. only record the timed assessments
+    		if (iteration >= WARM_UP_ASSESSMENTS) {
+    			uncachedAssessment.record(uncachedNanos);
+    			cachedAssessment.record(cachedNanos);
+    		}
+    	}
+
+    	// 3. report the latency of both paths
+    	benchmarkReport.write("uncached_rule_assessment", CACHE_TIMING_SCENARIO, uncachedAssessment);
+    	benchmarkReport.write("cached_rule_assessment", CACHE_TIMING_SCENARIO, cachedAssessment);
+    	Log.i(LOG_TAG, "Median assessment latency - uncached rules: " + (uncachedAssessment.getPercentileNanos(50.0) / 1000)
+    			+ "us, cached rules: " + (cachedAssessment.getPercentileNanos(50.0) / 1000) + "us");
+
+    	assertEquals(TIMED_ASSESSMENTS, cachedAssessment.getSampleCount());
+    }
+} // end of class
@@ -0,0 +1,162 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmAllocationCounter;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBenchmarkReport;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmLatencyStatistics;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineCache;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+import ie.ucc.bis.supportinglife.rule.engine.ClassificationRuleEngine;
+import ie.ucc.bis.supportinglife.rule.engine.TreatmentRuleEngine;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * This test case benchmarks the CCM Classification and Treatment rule
+ * engines by replaying the patient symptoms of every CCM rule engine
+ * test scenario (ccm_rule_*) through both engines.
+ *
+ * Throughput, mean and p99 latency are reported separately for:
+ *
+ * 		-> rule loading (classification and treatment rules)
+ * 		-> classification (per scenario)
+ * 		-> treatment (per scenario)
+ *
+ * The objects and bytes allocated by a single (warm) classification and
+ * treatment of each scenario are also reported.
+ *
+ * Results are written as JSON lines to 'ccm-rule-engine-benchmark.json'
+ * in the files directory of the application under test.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRuleEngineBenchmarkTest extends CcmDiagnosticRuleEngineTest {
+
+	private static final String RULE_LOADING_SCENARIO = "all";
+	private static final int WARM_UP_ITERATIONS = 5;
+	private static final int LOADING_ITERATIONS = 20;
+	private static final int ASSESSMENT_ITERATIONS = 200;
+
+	private CcmBenchmarkReport benchmarkReport;
+
+    public CcmRuleEngineBenchmarkTest() {
+        super();
+    }
+
+    @Override
+    public void setUp() {
+    	super.setUp();
+    	benchmarkReport = new CcmBenchmarkReport(getInstrumentation().getTargetContext(), CcmBenchmarkReport.RULE_ENGINE_BENCHMARK_FILE);
+    }
+
+    /**
+     * Benchmark of reading the CCM classification and treatment rules
+     *
+     */
+    public void testRuleLoadingBenchmark() {
+    	CcmLatencyStatistics classificationLoading = new CcmLatencyStatistics("classification rule loading");
+    	CcmLatencyStatistics treatmentLoading = new CcmLatencyStatistics("treatment rule loading");
+
+    	for (int iteration = 0; iteration < WARM_UP_ITERATIONS + LOADING_ITERATIONS; iteration++) {
+    		long startTime = System.nanoTime();
+    		new ClassificationRuleEngine().readCcmClassificationRules(getSupportingLifeActivity());
+    		long classificationNanos = System.nanoTime() - startTime;
+
+    		startTime = System.nanoTime();
+    		new TreatmentRuleEngine().readCcmTreatmentRules(getSupportingLifeActivity());
+    		long treatmentNanos = System.nanoTime() - startTime;
+
+    		if (iteration >= WARM_UP_ITERATIONS) {
+    			classificationLoading.record(classificationNanos);
+    			treatmentLoading.record(treatmentNanos);
+    		}
+    	}
+
+    	benchmarkReport.write("classification_rule_loading", RULE_LOADING_SCENARIO, classificationLoading);
+    	benchmarkReport.write("treatment_rule_loading", RULE_LOADING_SCENARIO, treatmentLoading);
+    	assertEquals(LOADING_ITERATIONS, classificationLoading.getSampleCount());
+    }
+
+    /**
+     * Benchmark of classifying and treating the patient of every
+     * CCM rule engine test scenario, using the shared rule engines
+     *
+     */
+    public void testScenarioAssessmentBenchmark() {
+    	ClassificationRuleEngine classificationRuleEngine = CcmRuleEngineCache.getClassificationRuleEngine(getSupportingLifeActivity());
+    	TreatmentRuleEngine treatmentRuleEngine = CcmRuleEngineCache.getTreatmentRuleEngine(getSupportingLifeActivity());
+    	Map<String, ArrayList<ReviewItem>> scenarios = CcmRuleScenarios.buildReviewItems(getSupportingLifeActivity());
+
+    	for (Map.Entry<String, ArrayList<ReviewItem>> scenario : scenarios.entrySet()) {
+    		CcmLatencyStatistics classification = new CcmLatencyStatistics("classification");
+    		CcmLatencyStatistics treatment = new CcmLatencyStatistics("treatment");
+
+    		for (int iteration = 0; iteration < WARM_UP_ITERATIONS + ASSESSMENT_ITERATIONS; iteration++) {
+    			PatientAssessment patientAssessment = new PatientAssessment();
+
+    			long startTime = System.nanoTime();
+    	        classificationRuleEngine.determinePatientClassifications(getSupportingLifeActivity(), scenario.getValue(), patientAssessment, classificationRuleEngine.getSystemCcmClassifications());
+    	        long classificationNanos = System.nanoTime() - startTime;
+
+    	        startTime = System.nanoTime();
+    	        treatmentRuleEngine.determineCcmTreatments(getSupportingLifeActivity(), scenario.getValue(), patientAssessment);
+    	        long treatmentNanos = System.nanoTime() - startTime;
+
+    	        if (iteration >= WARM_UP_ITERATIONS) {
+    	        	classification.record(classificationNanos);
+    	        	treatment.record(treatmentNanos);
+    	        }
+    		}
+
+    		benchmarkReport.write("classification", scenario.getKey(), classification);
+    		benchmarkReport.write("treatment", scenario.getKey(), treatment);
+    	}
+
+    	assertEquals("not every ccm_rule scenario was benchmarked", CcmRuleScenarios.getScenarioNumber(), scenarios.size());
+    }
+
+    /**
+     * Benchmark of the objects allocated in classifying and treating the
+     * patient of every CCM rule engine test scenario, using the shared
+     * rule engines
+     *
+     */
+    public void testScenarioAllocationBenchmark() {
+    	ClassificationRuleEngine classificationRuleEngine = CcmRuleEngineCache.getClassificationRuleEngine(getSupportingLifeActivity());
+    	TreatmentRuleEngine treatmentRuleEngine = CcmRuleEngineCache.getTreatmentRuleEngine(getSupportingLifeActivity());
+    	Map<String, ArrayList<ReviewItem>> scenarios = CcmRuleScenarios.buildReviewItems(getSupportingLifeActivity());
+
+    	for (Map.Entry<String, ArrayList<ReviewItem>> scenario : scenarios.entrySet()) {
+    		// warm up so that class loading and lazy initialisation are not counted
+    		for (int iteration = 0; iteration < WARM_UP_ITERATIONS; iteration++) {
+    			PatientAssessment patientAssessment = new PatientAssessment();
+    	        classificationRuleEngine.determinePatientClassifications(getSupportingLifeActivity(), scenario.getValue(), patientAssessment, classificationRuleEngine.getSystemCcmClassifications());
+    	        treatmentRuleEngine.determineCcmTreatments(getSupportingLifeActivity(), scenario.getValue(), patientAssessment);
+    		}
+
+    		CcmAllocationCounter classificationAllocations = new CcmAllocationCounter("classification allocations");
+    		CcmAllocationCounter treatmentAllocations = new CcmAllocationCounter("treatment allocations");
+    		PatientAssessment patientAssessment = new PatientAssessment();
+
+    		classificationAllocations.start();
+    		try {
+    			classificationRuleEngine.determinePatientClassifications(getSupportingLifeActivity(), scenario.getValue(), patientAssessment, classificationRuleEngine.getSystemCcmClassifications());
+    		} finally {
+    			classificationAllocations.stop();
+    		}
+
+    		treatmentAllocations.start();
+    		try {
+    			treatmentRuleEngine.determineCcmTreatments(getSupportingLifeActivity(), scenario.getValue(), patientAssessment);
+    		} finally {
+    			treatmentAllocations.stop();
+    		}
+
+    		benchmarkReport.write("classification_allocations", scenario.getKey(), classificationAllocations);
+    		benchmarkReport.write("treatment_allocations", scenario.getKey(), treatmentAllocations);
+    		assertTrue("no allocations were counted for " + scenario.getKey(), classificationAllocations.getAllocationCount() > 0);
+    	}
+    }
+} // end of class
@@ -0,0 +1,92 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBenchmarkReport;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmLatencyStatistics;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+import ie.ucc.bis.supportinglife.test.SupportingLifeTestRunner;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * This test case checks that the rule engines assess the patient of every
+ * CCM rule engine test scenario (ccm_rule_*) within the latency budget.
+ *
+ * executeRuleEngines() is measured over repeated runs after warm-up and the
+ * percentiles of each scenario are written to LATENCY_REPORT_FILE, from where
+ * the build pulls them next to the test report.
+ *
+ * The budget is set by the instrumentation arguments (see pom.xml):
+ *
+ * 		-> ccmLatencyBudgetMillis - budget of the LATENCY_BUDGET_PERCENTILE latency
+ * 		-> ccmLatencyBudgetReportOnly - when 'true' the budget is only reported,
+ * 		   and the build fails in its verify phase instead, once the report
+ * 		   has been pulled
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRuleEngineLatencyBudgetTest extends CcmDiagnosticRuleEngineTest {
+
+	public static final String LATENCY_REPORT_FILE = "ccm-rule-engine-latency.json";
+	public static final String LATENCY_BUDGET_MILLIS_ARGUMENT = "ccmLatencyBudgetMillis";
+	public static final String LATENCY_BUDGET_REPORT_ONLY_ARGUMENT = "ccmLatencyBudgetReportOnly";
+	private static final double LATENCY_BUDGET_PERCENTILE = 90.0;
+	private static final long DEFAULT_LATENCY_BUDGET_MILLIS = 50L;
+	private static final int LATENCY_WARM_UP_RUNS = 10;
+	private static final int LATENCY_MEASURED_RUNS = 50;
+
+    public CcmRuleEngineLatencyBudgetTest() {
+        super();
+    }
+
+    /**
+     * Test case to check that the p90 latency of executeRuleEngines() is
+     * within the latency budget for each scenario patient
+     *
+     */
+    public void testRuleEngineLatencyBudget() {
+    	long budgetNanos = getLatencyBudgetMillis() * 1000000L;
+    	boolean reportOnly = Boolean.parseBoolean(SupportingLifeTestRunner.getArgument(getInstrumentation(), LATENCY_BUDGET_REPORT_ONLY_ARGUMENT));
+    	CcmBenchmarkReport latencyReport = new CcmBenchmarkReport(getInstrumentation().getTargetContext(), LATENCY_REPORT_FILE);
+    	Map<String, ArrayList<ReviewItem>> scenarioReviewItems = CcmRuleScenarios.buildReviewItems(getSupportingLifeActivity());
+
+    	StringBuilder overBudget = new StringBuilder();
+    	for (Map.Entry<String, ArrayList<ReviewItem>> scenario : scenarioReviewItems.entrySet()) {
+    		setReviewItems(scenario.getValue());
+
+    		for (int run = 0; run < LATENCY_WARM_UP_RUNS; run++) {
+    			executeRuleEngines(new PatientAssessment());
+    		}
+    		CcmLatencyStatistics latency = new CcmLatencyStatistics("executeRuleEngines");
+    		for (int run = 0; run < LATENCY_MEASURED_RUNS; run++) {
+    			long startTime = System.nanoTime();
+    			executeRuleEngines(new PatientAssessment());
+    			latency.record(System.nanoTime() - startTime);
+    		}
+    		latencyReport.write("latency_budget", scenario.getKey(), latency, LATENCY_BUDGET_PERCENTILE, budgetNanos);
+
+    		long percentileNanos = latency.getPercentileNanos(LATENCY_BUDGET_PERCENTILE);
+    		if (percentileNanos > budgetNanos) {
+    			overBudget.append(' ').append(scenario.getKey()).append('=').append(percentileNanos / 1000).append("us");
+    		}
+    	}
+
+    	if (!reportOnly) {
+    		assertTrue("p" + (int) LATENCY_BUDGET_PERCENTILE + " latency exceeds the budget of "
+    				+ (budgetNanos / 1000) + "us:" + overBudget, overBudget.length() == 0);
+    	}
+    }
+
+    /**
+     * Latency budget of executeRuleEngines(), i.e. the ccmLatencyBudgetMillis
+     * instrumentation argument, or DEFAULT_LATENCY_BUDGET_MILLIS when not set
+     *
+     * @return long - budget in milliseconds
+     */
+    private long getLatencyBudgetMillis() {
+    	String budgetMillis = SupportingLifeTestRunner.getArgument(getInstrumentation(), LATENCY_BUDGET_MILLIS_ARGUMENT);
+    	return budgetMillis == null ? DEFAULT_LATENCY_BUDGET_MILLIS : Long.parseLong(budgetMillis.trim());
+    }
+} // end of class
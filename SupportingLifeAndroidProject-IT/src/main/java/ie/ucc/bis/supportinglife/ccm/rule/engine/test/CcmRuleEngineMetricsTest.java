@@ -0,0 +1,132 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBenchmarkReport;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmLatencyStatistics;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineCache;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineMetrics;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+import ie.ucc.bis.supportinglife.rule.engine.Diagnostic;
+
+import android.util.Log;
+
+/**
+ * This test case evaluates the optional rule engine instrumentation
+ * (CcmRuleEngineMetrics) using the patient symptoms of test case
+ * ccm_rule_3_4.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRuleEngineMetricsTest extends CcmDiagnosticRuleEngineTest {
+
+	private static final String INSTRUMENTED_SCENARIO = "ccm_rule_3_4";
+	private static final int INSTRUMENTED_ASSESSMENTS = 20;
+	private static final int HOOK_CALLS = 1000000;
+
+    public CcmRuleEngineMetricsTest() {
+        super();
+    }
+
+    @Override
+    public void setUp() {
+    	super.setUp();
+    	setReviewItems(CcmRuleScenarios.buildReviewItems(getSupportingLifeActivity()).get(INSTRUMENTED_SCENARIO));
+    	CcmRuleEngineMetrics.reset();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+    	CcmRuleEngineMetrics.setEnabled(false);
+    	CcmRuleEngineMetrics.reset();
+    	super.tearDown();
+    }
+
+    /**
+     * Test case to check that phase and classification metrics are
+     * recorded when instrumentation is enabled
+     *
+     */
+    public void testMetricsRecordedWhenEnabled() {
+    	CcmRuleEngineMetrics.setEnabled(true);
+    	CcmRuleEngineCache.clear();
+
+    	for (int count = 0; count < INSTRUMENTED_ASSESSMENTS; count++) {
+    		setPatientAssessment(new PatientAssessment());
+    		executeRuleEngines();
+    	}
+    	Log.i(LOG_TAG, CcmRuleEngineMetrics.dump());
+
+    	// 1. classification and treatment rules are each loaded once
+    	assertEquals("incorrect number of rule loads recorded", 2, CcmRuleEngineMetrics.getPhaseCount(CcmRuleEngineMetrics.PHASE_LOADING));
+
+    	// 2. every assessment is classified and treated
+    	assertEquals("incorrect number of classification phases recorded",
+    			INSTRUMENTED_ASSESSMENTS, CcmRuleEngineMetrics.getPhaseCount(CcmRuleEngineMetrics.PHASE_CLASSIFICATION));
+    	assertEquals("incorrect number of treatment phases recorded",
+    			INSTRUMENTED_ASSESSMENTS, CcmRuleEngineMetrics.getPhaseCount(CcmRuleEngineMetrics.PHASE_TREATMENT));
+    	assertTrue("no classification time recorded", CcmRuleEngineMetrics.getPhaseNanos(CcmRuleEngineMetrics.PHASE_CLASSIFICATION) > 0);
+
+    	// 3. every classification of the patient is matched once per assessment
+    	for (Diagnostic diagnostic : getPatientAssessment().getDiagnostics()) {
+    		assertEquals("incorrect number of matches recorded for " + diagnostic.getClassification().getName(),
+    				INSTRUMENTED_ASSESSMENTS, CcmRuleEngineMetrics.getClassificationMatches(diagnostic.getClassification().getName()));
+    	}
+    }
+
+    /**
+     * Test case to check that nothing is recorded when instrumentation
+     * is disabled; the cost of a disabled hook is reported, not asserted,
+     * as it depends on the device
+     *
+     */
+    public void testDisabledMetricsOverhead() {
+    	CcmRuleEngineMetrics.setEnabled(false);
+    	CcmRuleEngineCache.clear();
+    	executeRuleEngines();
+
+    	long startTime = System.nanoTime();
+    	for (int count = 0; count < HOOK_CALLS; count++) {
+    		CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_CLASSIFICATION, CcmRuleEngineMetrics.startTimer());
+    	}
+    	long hookNanos = (System.nanoTime() - startTime) / HOOK_CALLS;
+
+    	CcmLatencyStatistics disabledHook = new CcmLatencyStatistics("disabled metrics hook");
+    	disabledHook.record(hookNanos);
+    	new CcmBenchmarkReport(getInstrumentation().getTargetContext(), CcmBenchmarkReport.RULE_ENGINE_BENCHMARK_FILE).write("disabled_metrics_hook", INSTRUMENTED_SCENARIO, disabledHook);
+
+    	assertEquals("rule loading was recorded while disabled", 0, CcmRuleEngineMetrics.getPhaseCount(CcmRuleEngineMetrics.PHASE_LOADING));
+    	assertEquals("classification was recorded while disabled", 0, CcmRuleEngineMetrics.getPhaseCount(CcmRuleEngineMetrics.PHASE_CLASSIFICATION));
+    	assertEquals("treatment was recorded while disabled", 0, CcmRuleEngineMetrics.getPhaseCount(CcmRuleEngineMetrics.PHASE_TREATMENT));
+    	for (Diagnostic diagnostic : getPatientAssessment().getDiagnostics()) {
+    		assertEquals("classification matches were recorded while disabled for " + diagnostic.getClassification().getName(),
+    				0, CcmRuleEngineMetrics.getClassificationMatches(diagnostic.getClassification().getName()));
+    	}
+    }
+
+    /**
+     * Test case to check that a phase is only recorded when metrics are
+     * enabled for the whole phase, i.e. when toggled in the middle of a phase
+     *
+     */
+    public void testMetricsToggledDuringPhase() {
+    	// 1. enabled after the phase started
+    	CcmRuleEngineMetrics.setEnabled(false);
+    	long startTime = CcmRuleEngineMetrics.startTimer();
+    	CcmRuleEngineMetrics.setEnabled(true);
+    	CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_CLASSIFICATION, startTime);
+    	assertEquals("phase started while disabled was recorded", 0, CcmRuleEngineMetrics.getPhaseCount(CcmRuleEngineMetrics.PHASE_CLASSIFICATION));
+    	assertEquals("time of phase started while disabled was recorded", 0, CcmRuleEngineMetrics.getPhaseNanos(CcmRuleEngineMetrics.PHASE_CLASSIFICATION));
+
+    	// 2. disabled after the phase started
+    	startTime = CcmRuleEngineMetrics.startTimer();
+    	CcmRuleEngineMetrics.setEnabled(false);
+    	CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_CLASSIFICATION, startTime);
+    	assertEquals("phase ended while disabled was recorded", 0, CcmRuleEngineMetrics.getPhaseCount(CcmRuleEngineMetrics.PHASE_CLASSIFICATION));
+
+    	// 3. enabled for the whole phase
+    	CcmRuleEngineMetrics.setEnabled(true);
+    	startTime = CcmRuleEngineMetrics.startTimer();
+    	CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_CLASSIFICATION, startTime);
+    	assertEquals("phase was not recorded while enabled", 1, CcmRuleEngineMetrics.getPhaseCount(CcmRuleEngineMetrics.PHASE_CLASSIFICATION));
+    }
+} // end of class
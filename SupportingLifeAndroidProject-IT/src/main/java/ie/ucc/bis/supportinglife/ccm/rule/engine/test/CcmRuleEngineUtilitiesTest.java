@@ -0,0 +1,74 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineUtilities;
+
+import android.test.AndroidTestCase;
+
+/**
+ * This test case evaluates the normalisation of treatment descriptions
+ * (CcmRuleEngineUtilities.normaliseTreatmentDescription()) against the
+ * chain of replacements it replaced in treatmentPresent().
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRuleEngineUtilitiesTest extends AndroidTestCase {
+
+	// treatment descriptions, including whitespace, case and backslash edge cases
+	private static final String[] TREATMENT_DESCRIPTIONS = {
+		"",
+		"Give ORS",
+		"REFER URGENTLY to health facility",
+		"\tGive first dose of LA:\n\t1 tablet\n",
+		"Write a referral note\\n",
+		"\\nWrite\\na referral\\n note",
+		"  Give ORS  ",
+		"Give\r\nORS",
+		"Give ORS",
+		"GIVE ors",
+		"Give \\N ORS",
+		"Give \\\\n ORS",
+		"Give \\\tn ORS",
+		"Give \\\nn ORS",
+		"Give \\\\\tnn ORS",
+		"Give ORS\\",
+		"\\",
+		"n",
+		"\\n\\n\\n",
+		"\t\n\t\n"
+	};
+
+    public CcmRuleEngineUtilitiesTest() {
+        super();
+    }
+
+    /**
+     * Test case to check that each treatment description is normalised
+     * exactly as the previous chain of replacements normalised it
+     *
+     */
+    public void testNormaliseTreatmentDescription() {
+    	for (String treatmentDescription : TREATMENT_DESCRIPTIONS) {
+    		assertEquals("incorrectly normalised: '" + treatmentDescription + "'",
+    				replaceNewlineAndTabCharacters(treatmentDescription),
+    				CcmRuleEngineUtilities.normaliseTreatmentDescription(treatmentDescription));
+    	}
+    }
+
+    /**
+     * Test case to check that normalisation keeps spaces and case
+     *
+     */
+    public void testNormalisationKeepsSpacesAndCase() {
+    	assertEquals("spaces were removed", "  Give ORS  ", CcmRuleEngineUtilities.normaliseTreatmentDescription("  Give ORS  "));
+    	assertEquals("case was changed", "GIVE ors", CcmRuleEngineUtilities.normaliseTreatmentDescription("GIVE ors"));
+    	assertEquals("carriage return was removed", "Give\rORS", CcmRuleEngineUtilities.normaliseTreatmentDescription("Give\r\nORS"));
+    }
+
+    /**
+     * Chain of replacements formerly applied by treatmentPresent()
+     */
+    private static String replaceNewlineAndTabCharacters(String treatmentDescription) {
+    	return treatmentDescription.replace("\t", "").replace("\n", "").replace("\\n", "");
+    }
+} // end of class
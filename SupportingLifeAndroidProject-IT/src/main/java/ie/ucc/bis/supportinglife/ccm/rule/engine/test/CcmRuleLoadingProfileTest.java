@@ -0,0 +1,129 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmAllocationCounter;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBenchmarkReport;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmHeapSampler;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmLatencyStatistics;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineCache;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmRuleEngineUtilities;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+import ie.ucc.bis.supportinglife.rule.engine.ClassificationRuleEngine;
+
+/**
+ * This test case profiles the cost of loading the CCM rules as seen
+ * through executeRuleEngines(), i.e. with no rules loaded beforehand.
+ *
+ * The following are reported:
+ *
+ * 		-> time to first classification (classification rule loading
+ * 		   and classification of the patient)
+ * 		-> cold assessment time (rule loading, classification and treatment)
+ * 		-> objects and bytes allocated by a cold assessment (a count of
+ * 		   all allocations, not a measure of memory in use)
+ * 		-> peak Java and native heap in use during a cold assessment
+ *
+ * The patient symptoms are those of test case ccm_rule_3_3.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRuleLoadingProfileTest extends CcmDiagnosticRuleEngineTest {
+
+	private static final String PROFILED_SCENARIO = "ccm_rule_3_3";
+	private static final int WARM_UP_ITERATIONS = 3;
+	private static final int PROFILED_ITERATIONS = 10;
+
+	private CcmBenchmarkReport benchmarkReport;
+
+    public CcmRuleLoadingProfileTest() {
+        super();
+    }
+
+    @Override
+    public void setUp() {
+    	super.setUp();
+    	setReviewItems(CcmRuleScenarios.buildReviewItems(getSupportingLifeActivity()).get(PROFILED_SCENARIO));
+    	benchmarkReport = new CcmBenchmarkReport(getInstrumentation().getTargetContext(), CcmBenchmarkReport.RULE_ENGINE_BENCHMARK_FILE);
+    }
+
+    /**
+     * Profile of the time to first classification and of a
+     * cold assessment
+     *
+     */
+    public void testColdLoadingLatency() {
+    	CcmLatencyStatistics firstClassification = new CcmLatencyStatistics("time to first classification");
+    	CcmLatencyStatistics coldAssessment = new CcmLatencyStatistics("cold assessment");
+
+    	for (int iteration = 0; iteration < WARM_UP_ITERATIONS + PROFILED_ITERATIONS; iteration++) {
+    		// 1. time to first classification
+    		CcmRuleEngineCache.clear();
+    		long startTime = System.nanoTime();
+    		ClassificationRuleEngine classificationRuleEngine = CcmRuleEngineCache.getClassificationRuleEngine(getSupportingLifeActivity());
+    		classificationRuleEngine.determinePatientClassifications(getSupportingLifeActivity(), getReviewItems(), new PatientAssessment(), classificationRuleEngine.getSystemCcmClassifications());
+    		long firstClassificationNanos = System.nanoTime() - startTime;
+
+    		// 2. cold assessment
+    		CcmRuleEngineCache.clear();
+    		setPatientAssessment(new PatientAssessment());
+    		startTime = System.nanoTime();
+    		executeRuleEngines();
+    		long coldAssessmentNanos = System.nanoTime() - startTime;
+
+    		if (iteration >= WARM_UP_ITERATIONS) {
+    			firstClassification.record(firstClassificationNanos);
+    			coldAssessment.record(coldAssessmentNanos);
+    		}
+    	}
+
+    	benchmarkReport.write("time_to_first_classification", PROFILED_SCENARIO, firstClassification);
+    	benchmarkReport.write("cold_assessment", PROFILED_SCENARIO, coldAssessment);
+    	assertTrue("the profiled patient was not classified", CcmRuleEngineUtilities.calculateStandardClassificationNumber(getPatientAssessment().getDiagnostics()) > 0);
+    }
+
+    /**
+     * Profile of the allocations made by a cold assessment
+     *
+     */
+    public void testColdLoadingAllocations() {
+    	// warm up so that class loading is not counted
+    	CcmRuleEngineCache.clear();
+    	executeRuleEngines();
+
+    	CcmAllocationCounter coldAssessmentAllocations = new CcmAllocationCounter("cold assessment allocations");
+    	CcmRuleEngineCache.clear();
+    	setPatientAssessment(new PatientAssessment());
+    	coldAssessmentAllocations.start();
+    	try {
+    		executeRuleEngines();
+    	} finally {
+    		coldAssessmentAllocations.stop();
+    	}
+
+    	benchmarkReport.write("cold_assessment_allocations", PROFILED_SCENARIO, coldAssessmentAllocations);
+    	assertTrue("no allocations were counted for a cold assessment", coldAssessmentAllocations.getAllocationCount() > 0);
+    }
+
+    /**
+     * Profile of the peak heap in use during a cold assessment
+     *
+     */
+    public void testColdLoadingPeakHeap() {
+    	// warm up so that class loading is not counted
+    	CcmRuleEngineCache.clear();
+    	executeRuleEngines();
+
+    	CcmHeapSampler coldAssessmentHeap = new CcmHeapSampler("cold assessment peak heap");
+    	CcmRuleEngineCache.clear();
+    	setPatientAssessment(new PatientAssessment());
+    	coldAssessmentHeap.start();
+    	try {
+    		executeRuleEngines();
+    	} finally {
+    		coldAssessmentHeap.stop();
+    	}
+
+    	benchmarkReport.write("cold_assessment_peak_heap", PROFILED_SCENARIO, coldAssessmentHeap);
+    	assertTrue("no Java heap growth was sampled for a cold assessment", coldAssessmentHeap.getPeakJavaHeapBytes() > 0);
+    }
+} // end of class
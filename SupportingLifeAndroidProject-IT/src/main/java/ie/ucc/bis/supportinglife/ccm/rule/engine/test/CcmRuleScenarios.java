@@ -0,0 +1,99 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.activity.SupportingLifeBaseActivity;
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class catalogues the CCM rule engine test scenarios (ccm_rule_*) so
+ * that the patient symptoms configured in each test case's setUp() can be
+ * replayed outside of the individual test case, e.g. by benchmarks.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRuleScenarios {
+
+	private static final Map<String, Class<? extends CcmDiagnosticRuleEngineTest>> SCENARIOS;
+
+	static {
+		SCENARIOS = new LinkedHashMap<String, Class<? extends CcmDiagnosticRuleEngineTest>>();
+		SCENARIOS.put("ccm_rule_1_1", CcmCoughAndEatingDangerSignsDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_1_2", CcmCoughNonDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_2_1", CcmDiarrhoeaDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_2_2", CcmDiarrhoeaAndCoughDangerSignsDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_2_3", CcmDiarrhoeaNonDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_2_4", CcmBloodInStoolDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_2_5", CcmDiarrhoeaOtherProblemDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_3_1", CcmFeverOlderChildDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_3_2", CcmFeverYoungerChildDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_3_3", CcmFeverInfantDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_3_4", CcmFeverAndEatingDangerSignsDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_4_1", CcmConvulsionsDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_5_1", CcmEatingDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_6_1", CcmVomitsEverythingDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_7_1", CcmRedEyeDangerSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_7_2", CcmRedEyeAndVisualSignsDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_7_3", CcmRedEyeSickSignDiagnosticTest.class);
+		SCENARIOS.put("ccm_rule_8_1", CcmOtherProblemDiagnosticTest.class);
+	}
+
+	/**
+	 * Builds the review items of every CCM rule engine test scenario,
+	 * keyed by test case ID (e.g. 'ccm_rule_3_3') in test case order
+	 *
+	 * @param supportingLifeActivity - activity used to resolve resources
+	 *
+	 * @return Map<String, ArrayList<ReviewItem>> - review items per test case ID
+	 */
+	public static Map<String, ArrayList<ReviewItem>> buildReviewItems(SupportingLifeBaseActivity supportingLifeActivity) {
+		Map<String, ArrayList<ReviewItem>> scenarioReviewItems = new LinkedHashMap<String, ArrayList<ReviewItem>>();
+
+		for (Map.Entry<String, Class<? extends CcmDiagnosticRuleEngineTest>> scenario : SCENARIOS.entrySet()) {
+			CcmDiagnosticRuleEngineTest scenarioTest;
+			try {
+				scenarioTest = scenario.getValue().newInstance();
+			} catch (InstantiationException e) {
+				throw new IllegalStateException("unable to create test scenario " + scenario.getKey(), e);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("unable to create test scenario " + scenario.getKey(), e);
+			}
+			// reuse the supplied activity rather than launching a new one per scenario
+			scenarioTest.setSupportingLifeActivity(supportingLifeActivity);
+			scenarioTest.setUp();
+			scenarioReviewItems.put(scenario.getKey(), scenarioTest.getReviewItems());
+		}
+
+		return scenarioReviewItems;
+	}
+
+	/**
+	 * Getter Method: getScenarioNumber()
+	 *
+	 * i.e. number of CCM rule engine test scenarios
+	 */
+	public static int getScenarioNumber() {
+		return SCENARIOS.size();
+	}
+
+	/**
+	 * Determines the test case ID (e.g. 'ccm_rule_3_3') of a
+	 * CCM rule engine test scenario
+	 *
+	 * @param scenarioClass - test case class
+	 *
+	 * @return String - test case ID, or null when the class is not a ccm_rule scenario
+	 */
+	public static String getTestCaseId(Class<?> scenarioClass) {
+		for (Map.Entry<String, Class<? extends CcmDiagnosticRuleEngineTest>> scenario : SCENARIOS.entrySet()) {
+			if (scenario.getValue().equals(scenarioClass)) {
+				return scenario.getKey();
+			}
+		}
+		return null;
+	}
+
+} // end of class
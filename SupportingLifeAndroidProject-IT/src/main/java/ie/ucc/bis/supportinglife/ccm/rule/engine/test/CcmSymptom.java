@@ -0,0 +1,108 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.R;
+
+/**
+ * This enum is the CCM symptom vocabulary used by the CCM rule engine
+ * test fixtures. Each symptom holds the resource ids of its label,
+ * symptom id and identifier strings (see CcmSymptomRegistry).
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public enum CcmSymptom {
+
+	DATE_OF_BIRTH(R.string.ccm_general_patient_details_review_date_of_birth,
+			R.string.ccm_general_patient_details_date_of_birth_symptom_id,
+			R.string.ccm_general_patient_details_date_of_birth_id),
+	FEVER(R.string.ccm_ask_initial_assessment_review_fever,
+			R.string.ccm_ask_initial_assessment_fever_symptom_id,
+			R.string.ccm_ask_initial_assessment_fever_id),
+	FEVER_DURATION(R.string.ccm_ask_initial_assessment_review_fever_duration,
+			R.string.ccm_ask_initial_assessment_fever_duration_seven_days_symptom_id,
+			R.string.ccm_ask_initial_assessment_fever_duration_id),
+	// the LA dosage review item has no label or identifier
+	FEVER_LA_DOSAGE(CcmSymptom.NO_RESOURCE,
+			R.string.ccm_ask_initial_assessment_fever_la_dosage_age_symptom_id,
+			CcmSymptom.NO_RESOURCE),
+	COUGH(R.string.ccm_ask_initial_assessment_review_cough,
+			R.string.ccm_ask_initial_assessment_cough_symptom_id,
+			R.string.ccm_ask_initial_assessment_cough_id),
+	COUGH_DURATION(R.string.ccm_ask_initial_assessment_review_cough_duration,
+			R.string.ccm_ask_initial_assessment_cough_duration_twenty_one_days_symptom_id,
+			R.string.ccm_ask_initial_assessment_cough_duration_id),
+	DIARRHOEA(R.string.ccm_ask_initial_assessment_review_diarrhoea,
+			R.string.ccm_ask_initial_assessment_diarrhoea_symptom_id,
+			R.string.ccm_ask_initial_assessment_diarrhoea_id),
+	DIARRHOEA_DURATION(R.string.ccm_ask_initial_assessment_review_diarrhoea_duration,
+			R.string.ccm_ask_initial_assessment_diarrhoea_duration_fourteen_days_symptom_id,
+			R.string.ccm_ask_initial_assessment_diarrhoea_duration_id),
+	BLOOD_IN_STOOL(R.string.ccm_ask_initial_assessment_review_blood_in_stool,
+			R.string.ccm_ask_initial_assessment_blood_in_stool_symptom_id,
+			R.string.ccm_ask_initial_assessment_blood_in_stool_id),
+	CONVULSIONS(R.string.ccm_ask_initial_assessment_review_convulsions,
+			R.string.ccm_ask_initial_assessment_convulsions_symptom_id,
+			R.string.ccm_ask_initial_assessment_convulsions_id),
+	DRINK_OR_FEED_DIFFICULTY(R.string.ccm_ask_initial_assessment_review_drink_or_feed_difficulty,
+			R.string.ccm_ask_initial_assessment_drink_or_feed_difficulty_symptom_id,
+			R.string.ccm_ask_initial_assessment_drink_or_feed_difficulty_id),
+	UNABLE_TO_DRINK_OR_FEED(R.string.ccm_ask_initial_assessment_review_unable_to_drink_or_feed,
+			R.string.ccm_ask_initial_assessment_unable_to_drink_or_feed_symptom_id,
+			R.string.ccm_ask_initial_assessment_unable_to_drink_or_feed_id),
+	VOMITING(R.string.ccm_ask_secondary_assessment_review_vomiting,
+			R.string.ccm_ask_secondary_assessment_vomiting_symptom_id,
+			R.string.ccm_ask_secondary_assessment_vomiting_id),
+	VOMITS_EVERYTHING(R.string.ccm_ask_secondary_assessment_review_vomits_everything,
+			R.string.ccm_ask_secondary_assessment_vomits_everything_symptom_id,
+			R.string.ccm_ask_secondary_assessment_vomits_everything_id),
+	RED_EYES(R.string.ccm_ask_secondary_assessment_review_red_eyes,
+			R.string.ccm_ask_secondary_assessment_red_eyes_symptom_id,
+			R.string.ccm_ask_secondary_assessment_red_eye_id),
+	RED_EYES_DURATION(R.string.ccm_ask_secondary_assessment_review_red_eyes_duration,
+			R.string.ccm_ask_initial_assessment_red_eyes_duration_four_days_symptom_id,
+			R.string.ccm_ask_secondary_assessment_red_eye_duration_id),
+	SEEING_DIFFICULTY(R.string.ccm_ask_secondary_assessment_review_seeing_difficulty,
+			R.string.ccm_ask_secondary_assessment_seeing_difficulty_symptom_id,
+			R.string.ccm_ask_secondary_assessment_seeing_difficulty_id),
+	SEEING_DIFFICULTY_DURATION(R.string.ccm_ask_secondary_assessment_review_seeing_difficulty_duration,
+			R.string.ccm_ask_secondary_assessment_seeing_difficulty_duration_symptom_id,
+			R.string.ccm_ask_secondary_assessment_seeing_difficulty_duration_id),
+	CANNOT_TREAT_PROBLEMS(R.string.ccm_ask_secondary_assessment_review_cannot_treat_problems,
+			R.string.ccm_ask_secondary_assessment_cannot_treat_problems_symptom_id,
+			R.string.ccm_ask_secondary_assessment_cannot_treat_problems_id);
+
+	// no resource, i.e. the symptom has no such string
+	public static final int NO_RESOURCE = 0;
+
+	private final int labelResId;
+	private final int symptomIdResId;
+	private final int identifierResId;
+
+	private CcmSymptom(int labelResId, int symptomIdResId, int identifierResId) {
+		this.labelResId = labelResId;
+		this.symptomIdResId = symptomIdResId;
+		this.identifierResId = identifierResId;
+	}
+
+	/**
+	 * Getter Method: getLabelResId()
+	 */
+	public int getLabelResId() {
+		return labelResId;
+	}
+
+	/**
+	 * Getter Method: getSymptomIdResId()
+	 */
+	public int getSymptomIdResId() {
+		return symptomIdResId;
+	}
+
+	/**
+	 * Getter Method: getIdentifierResId()
+	 */
+	public int getIdentifierResId() {
+		return identifierResId;
+	}
+
+} // end of class
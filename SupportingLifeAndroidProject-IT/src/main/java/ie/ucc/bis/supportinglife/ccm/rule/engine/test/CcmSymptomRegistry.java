@@ -0,0 +1,133 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import android.content.res.Resources;
+
+/**
+ * This class is an immutable registry of the strings of the CCM symptom
+ * vocabulary (CcmSymptom) used by the CCM rule engine test fixtures. The
+ * label, symptom id and identifier of each symptom are resolved from the
+ * supplied resources once, when the registry is built, rather than on
+ * every use.
+ *
+ * Usage:
+ *
+ * 		CcmSymptomRegistry.Symptom fever = new CcmSymptomRegistry(resources).get(CcmSymptom.FEVER);
+ * 		new ReviewItem(fever.getLabel(), "YES", fever.getSymptomId(), null, -1, fever.getIdentifier());
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmSymptomRegistry {
+
+	private final Map<CcmSymptom, Symptom> symptoms;
+	private final Map<String, Symptom> symptomsBySymptomId;
+
+	/**
+	 * Constructor
+	 *
+	 * @param resources - used to resolve the symptom strings
+	 */
+	public CcmSymptomRegistry(Resources resources) {
+		Map<CcmSymptom, Symptom> byCcmSymptom = new EnumMap<CcmSymptom, Symptom>(CcmSymptom.class);
+		Map<String, Symptom> bySymptomId = new HashMap<String, Symptom>(CcmSymptom.values().length * 2);
+		for (CcmSymptom ccmSymptom : CcmSymptom.values()) {
+			Symptom symptom = new Symptom(ccmSymptom,
+					getString(resources, ccmSymptom.getLabelResId()),
+					getString(resources, ccmSymptom.getSymptomIdResId()),
+					getString(resources, ccmSymptom.getIdentifierResId()));
+			byCcmSymptom.put(ccmSymptom, symptom);
+			bySymptomId.put(symptom.getSymptomId(), symptom);
+		}
+		symptoms = Collections.unmodifiableMap(byCcmSymptom);
+		symptomsBySymptomId = Collections.unmodifiableMap(bySymptomId);
+	}
+
+	private static String getString(Resources resources, int resId) {
+		return resId == CcmSymptom.NO_RESOURCE ? null : resources.getString(resId);
+	}
+
+	/**
+	 * Looks up the strings of a symptom
+	 *
+	 * @param ccmSymptom - e.g. CcmSymptom.FEVER
+	 *
+	 * @return Symptom
+	 */
+	public Symptom get(CcmSymptom ccmSymptom) {
+		return symptoms.get(ccmSymptom);
+	}
+
+	/**
+	 * Looks up a symptom by symptom id
+	 *
+	 * @param symptomId - e.g. 'ccm_ask_initial_assessment_fever_symptom_id'
+	 *
+	 * @return Symptom - the symptom, or null if the symptom id is not registered
+	 */
+	public Symptom getBySymptomId(String symptomId) {
+		return symptomsBySymptomId.get(symptomId);
+	}
+
+	/**
+	 * This class holds the strings of a single registered CCM symptom
+	 *
+	 */
+	public static final class Symptom {
+
+		private final CcmSymptom ccmSymptom;
+		private final String label;
+		private final String symptomId;
+		private final String identifier;
+
+		private Symptom(CcmSymptom ccmSymptom, String label, String symptomId, String identifier) {
+			this.ccmSymptom = ccmSymptom;
+			this.label = label;
+			this.symptomId = symptomId;
+			this.identifier = identifier;
+		}
+
+		/**
+		 * Getter Method: getCcmSymptom()
+		 */
+		public CcmSymptom getCcmSymptom() {
+			return ccmSymptom;
+		}
+
+		/**
+		 * Getter Method: getName()
+		 *
+		 * e.g. 'fever_duration'
+		 */
+		public String getName() {
+			return ccmSymptom.name().toLowerCase(Locale.UK);
+		}
+
+		/**
+		 * Getter Method: getLabel()
+		 */
+		public String getLabel() {
+			return label;
+		}
+
+		/**
+		 * Getter Method: getSymptomId()
+		 */
+		public String getSymptomId() {
+			return symptomId;
+		}
+
+		/**
+		 * Getter Method: getIdentifier()
+		 */
+		public String getIdentifier() {
+			return identifier;
+		}
+	}
+
+} // end of class
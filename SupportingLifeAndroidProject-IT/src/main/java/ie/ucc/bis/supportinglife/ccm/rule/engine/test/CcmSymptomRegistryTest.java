@@ -0,0 +1,119 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.test;
+
+import ie.ucc.bis.supportinglife.R;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.test.CcmSymptomRegistry.Symptom;
+
+import java.util.EnumSet;
+
+import android.content.res.Resources;
+import android.test.InstrumentationTestCase;
+
+/**
+ * This test case evaluates the registry of CCM symptom strings
+ * (CcmSymptomRegistry) used by the CCM rule engine test fixtures.
+ * The strings are taken from the resources of the application under
+ * test; no activity is launched.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmSymptomRegistryTest extends InstrumentationTestCase {
+
+	private Resources resources;
+	private CcmSymptomRegistry symptomRegistry;
+	private EnumSet<CcmSymptom> checkedSymptoms;
+
+    public CcmSymptomRegistryTest() {
+        super();
+    }
+
+    @Override
+    public void setUp() throws Exception {
+    	super.setUp();
+    	resources = getInstrumentation().getTargetContext().getResources();
+    	symptomRegistry = new CcmSymptomRegistry(resources);
+    	checkedSymptoms = EnumSet.noneOf(CcmSymptom.class);
+    }
+
+    /**
+     * Test case to check, symptom by symptom, that the registered label,
+     * symptom id and identifier match the application resources
+     *
+     */
+    public void testRegisteredSymptomStrings() {
+    	assertSymptom(CcmSymptom.DATE_OF_BIRTH, R.string.ccm_general_patient_details_review_date_of_birth,
+    			R.string.ccm_general_patient_details_date_of_birth_symptom_id, R.string.ccm_general_patient_details_date_of_birth_id);
+    	assertSymptom(CcmSymptom.FEVER, R.string.ccm_ask_initial_assessment_review_fever,
+    			R.string.ccm_ask_initial_assessment_fever_symptom_id, R.string.ccm_ask_initial_assessment_fever_id);
+    	assertSymptom(CcmSymptom.FEVER_DURATION, R.string.ccm_ask_initial_assessment_review_fever_duration,
+    			R.string.ccm_ask_initial_assessment_fever_duration_seven_days_symptom_id, R.string.ccm_ask_initial_assessment_fever_duration_id);
+    	assertSymptom(CcmSymptom.FEVER_LA_DOSAGE, CcmSymptom.NO_RESOURCE,
+    			R.string.ccm_ask_initial_assessment_fever_la_dosage_age_symptom_id, CcmSymptom.NO_RESOURCE);
+    	assertSymptom(CcmSymptom.COUGH, R.string.ccm_ask_initial_assessment_review_cough,
+    			R.string.ccm_ask_initial_assessment_cough_symptom_id, R.string.ccm_ask_initial_assessment_cough_id);
+    	assertSymptom(CcmSymptom.COUGH_DURATION, R.string.ccm_ask_initial_assessment_review_cough_duration,
+    			R.string.ccm_ask_initial_assessment_cough_duration_twenty_one_days_symptom_id, R.string.ccm_ask_initial_assessment_cough_duration_id);
+    	assertSymptom(CcmSymptom.DIARRHOEA, R.string.ccm_ask_initial_assessment_review_diarrhoea,
+    			R.string.ccm_ask_initial_assessment_diarrhoea_symptom_id, R.string.ccm_ask_initial_assessment_diarrhoea_id);
+    	assertSymptom(CcmSymptom.DIARRHOEA_DURATION, R.string.ccm_ask_initial_assessment_review_diarrhoea_duration,
+    			R.string.ccm_ask_initial_assessment_diarrhoea_duration_fourteen_days_symptom_id, R.string.ccm_ask_initial_assessment_diarrhoea_duration_id);
+    	assertSymptom(CcmSymptom.BLOOD_IN_STOOL, R.string.ccm_ask_initial_assessment_review_blood_in_stool,
+    			R.string.ccm_ask_initial_assessment_blood_in_stool_symptom_id, R.string.ccm_ask_initial_assessment_blood_in_stool_id);
+    	assertSymptom(CcmSymptom.CONVULSIONS, R.string.ccm_ask_initial_assessment_review_convulsions,
+    			R.string.ccm_ask_initial_assessment_convulsions_symptom_id, R.string.ccm_ask_initial_assessment_convulsions_id);
+    	assertSymptom(CcmSymptom.DRINK_OR_FEED_DIFFICULTY, R.string.ccm_ask_initial_assessment_review_drink_or_feed_difficulty,
+    			R.string.ccm_ask_initial_assessment_drink_or_feed_difficulty_symptom_id, R.string.ccm_ask_initial_assessment_drink_or_feed_difficulty_id);
+    	assertSymptom(CcmSymptom.UNABLE_TO_DRINK_OR_FEED, R.string.ccm_ask_initial_assessment_review_unable_to_drink_or_feed,
+    			R.string.ccm_ask_initial_assessment_unable_to_drink_or_feed_symptom_id, R.string.ccm_ask_initial_assessment_unable_to_drink_or_feed_id);
+    	assertSymptom(CcmSymptom.VOMITING, R.string.ccm_ask_secondary_assessment_review_vomiting,
+    			R.string.ccm_ask_secondary_assessment_vomiting_symptom_id, R.string.ccm_ask_secondary_assessment_vomiting_id);
+    	assertSymptom(CcmSymptom.VOMITS_EVERYTHING, R.string.ccm_ask_secondary_assessment_review_vomits_everything,
+    			R.string.ccm_ask_secondary_assessment_vomits_everything_symptom_id, R.string.ccm_ask_secondary_assessment_vomits_everything_id);
+    	assertSymptom(CcmSymptom.RED_EYES, R.string.ccm_ask_secondary_assessment_review_red_eyes,
+    			R.string.ccm_ask_secondary_assessment_red_eyes_symptom_id, R.string.ccm_ask_secondary_assessment_red_eye_id);
+    	assertSymptom(CcmSymptom.RED_EYES_DURATION, R.string.ccm_ask_secondary_assessment_review_red_eyes_duration,
+    			R.string.ccm_ask_initial_assessment_red_eyes_duration_four_days_symptom_id, R.string.ccm_ask_secondary_assessment_red_eye_duration_id);
+    	assertSymptom(CcmSymptom.SEEING_DIFFICULTY, R.string.ccm_ask_secondary_assessment_review_seeing_difficulty,
+    			R.string.ccm_ask_secondary_assessment_seeing_difficulty_symptom_id, R.string.ccm_ask_secondary_assessment_seeing_difficulty_id);
+    	assertSymptom(CcmSymptom.SEEING_DIFFICULTY_DURATION, R.string.ccm_ask_secondary_assessment_review_seeing_difficulty_duration,
+    			R.string.ccm_ask_secondary_assessment_seeing_difficulty_duration_symptom_id, R.string.ccm_ask_secondary_assessment_seeing_difficulty_duration_id);
+    	assertSymptom(CcmSymptom.CANNOT_TREAT_PROBLEMS, R.string.ccm_ask_secondary_assessment_review_cannot_treat_problems,
+    			R.string.ccm_ask_secondary_assessment_cannot_treat_problems_symptom_id, R.string.ccm_ask_secondary_assessment_cannot_treat_problems_id);
+
+    	assertEquals("symptoms registered but not checked", EnumSet.allOf(CcmSymptom.class), checkedSymptoms);
+    }
+
+    /**
+     * Test case to check that every registered symptom can be looked up
+     * by its symptom id
+     *
+     */
+    public void testLookupBySymptomId() {
+    	for (CcmSymptom ccmSymptom : CcmSymptom.values()) {
+    		Symptom symptom = symptomRegistry.get(ccmSymptom);
+    		assertSame("incorrect symptom registered for " + ccmSymptom, ccmSymptom, symptom.getCcmSymptom());
+    		assertSame("symptom not found by symptom id: " + symptom.getName(), symptom, symptomRegistry.getBySymptomId(symptom.getSymptomId()));
+    	}
+    }
+
+    /**
+     * Checks the registered strings of a single symptom against the
+     * application resources
+     *
+     * @param ccmSymptom - e.g. CcmSymptom.FEVER
+     * @param labelResId - or CcmSymptom.NO_RESOURCE if the symptom has no label
+     * @param symptomIdResId
+     * @param identifierResId - or CcmSymptom.NO_RESOURCE if the symptom has no identifier
+     */
+    private void assertSymptom(CcmSymptom ccmSymptom, int labelResId, int symptomIdResId, int identifierResId) {
+    	Symptom symptom = symptomRegistry.get(ccmSymptom);
+    	assertEquals("incorrect label for " + ccmSymptom, getString(labelResId), symptom.getLabel());
+    	assertEquals("incorrect symptom id for " + ccmSymptom, getString(symptomIdResId), symptom.getSymptomId());
+    	assertEquals("incorrect identifier for " + ccmSymptom, getString(identifierResId), symptom.getIdentifier());
+    	checkedSymptoms.add(ccmSymptom);
+    }
+
+    private String getString(int resId) {
+    	return resId == CcmSymptom.NO_RESOURCE ? null : resources.getString(resId);
+    }
+} // end of class
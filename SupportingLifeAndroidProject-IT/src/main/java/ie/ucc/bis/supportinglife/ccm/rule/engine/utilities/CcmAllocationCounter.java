@@ -0,0 +1,72 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import android.os.Debug;
+
+/**
+ * This class counts the objects and bytes allocated by the current
+ * thread between calls to start() and stop().
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmAllocationCounter {
+
+	private final String name;
+	private long allocationCount;
+	private long allocationBytes;
+
+	/**
+	 * Constructor
+	 *
+	 * @param name - name of the measured operation
+	 */
+	public CcmAllocationCounter(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Starts counting allocations made by the current thread
+	 */
+	public void start() {
+		Debug.resetThreadAllocCount();
+		Debug.resetThreadAllocSize();
+		Debug.startAllocCounting();
+	}
+
+	/**
+	 * Stops counting allocations, adding the allocations made since
+	 * start() to the totals
+	 */
+	public void stop() {
+		Debug.stopAllocCounting();
+		allocationCount += Debug.getThreadAllocCount();
+		allocationBytes += Debug.getThreadAllocSize();
+	}
+
+	/**
+	 * Getter Method: getName()
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Getter Method: getAllocationCount()
+	 */
+	public long getAllocationCount() {
+		return allocationCount;
+	}
+
+	/**
+	 * Getter Method: getAllocationBytes()
+	 */
+	public long getAllocationBytes() {
+		return allocationBytes;
+	}
+
+	@Override
+	public String toString() {
+		return name + ": objects=" + allocationCount + ", bytes=" + allocationBytes;
+	}
+
+} // end of class
@@ -0,0 +1,26 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+
+import java.util.ArrayList;
+
+/**
+ * Listener notified as each patient assessment of a batch has been
+ * classified and treated by the CCM rule engines.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public interface CcmAssessmentResultListener {
+
+	/**
+	 * Called once per assessment, in batch order
+	 *
+	 * @param assessmentIndex - position of the assessment in the batch
+	 * @param reviewItems - patient symptoms that were assessed
+	 * @param patientAssessment - resulting classifications and treatments
+	 */
+	public void onAssessmentEvaluated(int assessmentIndex, ArrayList<ReviewItem> reviewItems, PatientAssessment patientAssessment);
+
+}
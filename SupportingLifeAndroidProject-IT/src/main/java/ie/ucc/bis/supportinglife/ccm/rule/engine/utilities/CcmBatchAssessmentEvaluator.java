@@ -0,0 +1,106 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import ie.ucc.bis.supportinglife.activity.SupportingLifeBaseActivity;
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+import ie.ucc.bis.supportinglife.rule.engine.ClassificationRuleEngine;
+import ie.ucc.bis.supportinglife.rule.engine.TreatmentRuleEngine;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * This class evaluates many patient assessments against the CCM
+ * Classification and Treatment rule engines, e.g. for regression
+ * runs or re-scoring of previously captured assessments.
+ *
+ * The CCM rules are loaded once for the whole batch and each result
+ * is handed to the caller as soon as its assessment has been evaluated,
+ * so that large batches need not be held in memory.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmBatchAssessmentEvaluator {
+
+	private final SupportingLifeBaseActivity supportingLifeActivity;
+	private final ClassificationRuleEngine classificationRuleEngine;
+	private final TreatmentRuleEngine treatmentRuleEngine;
+
+	/**
+	 * Constructor
+	 *
+	 * @param supportingLifeActivity
+	 */
+	public CcmBatchAssessmentEvaluator(SupportingLifeBaseActivity supportingLifeActivity) {
+		this.supportingLifeActivity = supportingLifeActivity;
+		this.classificationRuleEngine = CcmRuleEngineCache.getClassificationRuleEngine(supportingLifeActivity);
+		this.treatmentRuleEngine = CcmRuleEngineCache.getTreatmentRuleEngine(supportingLifeActivity);
+	}
+
+	/**
+	 * Evaluates a single patient assessment
+	 *
+	 * @param reviewItems - patient symptoms
+	 *
+	 * @return PatientAssessment - classifications and treatments
+	 */
+	public PatientAssessment evaluate(ArrayList<ReviewItem> reviewItems) {
+		PatientAssessment patientAssessment = new PatientAssessment();
+		long startTime = CcmRuleEngineMetrics.startTimer();
+		classificationRuleEngine.determinePatientClassifications(supportingLifeActivity, reviewItems, patientAssessment, classificationRuleEngine.getSystemCcmClassifications());
+		CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_CLASSIFICATION, startTime);
+		startTime = CcmRuleEngineMetrics.startTimer();
+		treatmentRuleEngine.determineCcmTreatments(supportingLifeActivity, reviewItems, patientAssessment);
+		CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_TREATMENT, startTime);
+		CcmRuleEngineMetrics.recordClassifications(patientAssessment.getDiagnostics());
+		return patientAssessment;
+	}
+
+	/**
+	 * Evaluates each patient assessment supplied by the iterator, notifying
+	 * the listener as each assessment is evaluated
+	 *
+	 * @param assessments - patient symptoms, one review item list per assessment
+	 * @param resultListener
+	 *
+	 * @return int - number of assessments evaluated
+	 */
+	public int evaluate(Iterator<ArrayList<ReviewItem>> assessments, CcmAssessmentResultListener resultListener) {
+		int assessmentIndex = 0;
+
+		while (assessments.hasNext()) {
+			ArrayList<ReviewItem> reviewItems = assessments.next();
+			resultListener.onAssessmentEvaluated(assessmentIndex++, reviewItems, evaluate(reviewItems));
+		}
+		return assessmentIndex;
+	}
+
+	/**
+	 * Evaluates every patient assessment in the list
+	 *
+	 * @param assessments - patient symptoms, one review item list per assessment
+	 *
+	 * @return List<PatientAssessment> - results in the same order as the assessments
+	 */
+	public List<PatientAssessment> evaluateAll(List<ArrayList<ReviewItem>> assessments) {
+		final List<PatientAssessment> patientAssessments = new ArrayList<PatientAssessment>(assessments.size());
+
+		evaluate(assessments.iterator(), new CcmAssessmentResultListener() {
+			@Override
+			public void onAssessmentEvaluated(int assessmentIndex, ArrayList<ReviewItem> reviewItems, PatientAssessment patientAssessment) {
+				patientAssessments.add(patientAssessment);
+			}
+		});
+		return patientAssessments;
+	}
+
+	/**
+	 * Getter Method: getSupportingLifeActivity()
+	 */
+	public SupportingLifeBaseActivity getSupportingLifeActivity() {
+		return supportingLifeActivity;
+	}
+
+} // end of class
@@ -0,0 +1,219 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import android.content.Context;
+import android.os.Build;
+import android.util.Log;
+
+/**
+ * This class writes rule engine benchmark results as JSON lines
+ * (one JSON object per measured operation) so that results can be
+ * compared from release to release.
+ *
+ * The report is written to the external files directory of the
+ * application under test when available (so that it can be pulled
+ * from the device), otherwise to its internal files directory.
+ *
+ * Each report holds a single test run: a report file is truncated the
+ * first time it is written in the test process, and every result of the
+ * run carries the same run timestamp.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmBenchmarkReport {
+
+	public static final String RULE_ENGINE_BENCHMARK_FILE = "ccm-rule-engine-benchmark.json";
+	public static final String STARTUP_TRACE_FILE = "ccm-startup-trace.json";
+	private static final String LOG_TAG = "ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmBenchmarkReport";
+
+	// start of the test run, i.e. the first use of this class in the test process
+	private static final long runTimestamp = System.currentTimeMillis();
+	// report files already written in this test run
+	private static final Set<String> startedReportFiles = new HashSet<String>();
+
+	private final File reportFile;
+
+	/**
+	 * Constructor
+	 *
+	 * @param context - context of the application under test
+	 * @param reportFileName - e.g. RULE_ENGINE_BENCHMARK_FILE
+	 */
+	public CcmBenchmarkReport(Context context, String reportFileName) {
+		File reportDirectory = context.getExternalFilesDir(null);
+		if (reportDirectory == null) {
+			reportDirectory = context.getFilesDir();
+		}
+		this.reportFile = new File(reportDirectory, reportFileName);
+	}
+
+	/**
+	 * Appends the summary of the supplied latency statistics to the report
+	 *
+	 * @param benchmark - benchmark name, e.g. 'classification'
+	 * @param scenario - test case ID, e.g. 'ccm_rule_3_3'
+	 * @param statistics - measured latencies
+	 */
+	public void write(String benchmark, String scenario, CcmLatencyStatistics statistics) {
+		Map<String, Object> payload = createLatencyPayload(statistics);
+		payload.put("throughputPerSecond", statistics.getThroughputPerSecond());
+		writeResult(benchmark, scenario, payload, statistics);
+	}
+
+	/**
+	 * Appends the summary of the supplied latency statistics to the report,
+	 * together with the latency budget and whether it was met
+	 *
+	 * @param benchmark - benchmark name, e.g. 'latency_budget'
+	 * @param scenario - test case ID, e.g. 'ccm_rule_3_3'
+	 * @param statistics - measured latencies
+	 * @param budgetPercentile - percentile the budget applies to, e.g. 90.0
+	 * @param budgetNanos - latency budget in nanoseconds
+	 */
+	public void write(String benchmark, String scenario, CcmLatencyStatistics statistics, double budgetPercentile, long budgetNanos) {
+		boolean withinBudget = statistics.getPercentileNanos(budgetPercentile) <= budgetNanos;
+		Map<String, Object> payload = createLatencyPayload(statistics);
+		payload.put("budgetPercentile", budgetPercentile);
+		payload.put("budgetNanos", budgetNanos);
+		payload.put("withinBudget", withinBudget);
+		writeResult(benchmark, scenario, payload, statistics + ", withinBudget=" + withinBudget);
+	}
+
+	/**
+	 * Appends the allocations counted by the supplied counter to the report
+	 *
+	 * @param benchmark - benchmark name, e.g. 'rule_loading_allocations'
+	 * @param scenario - test case ID, e.g. 'ccm_rule_3_3'
+	 * @param allocationCounter - counted allocations
+	 */
+	public void write(String benchmark, String scenario, CcmAllocationCounter allocationCounter) {
+		Map<String, Object> payload = new LinkedHashMap<String, Object>();
+		payload.put("allocationCount", allocationCounter.getAllocationCount());
+		payload.put("allocationBytes", allocationCounter.getAllocationBytes());
+		writeResult(benchmark, scenario, payload, allocationCounter);
+	}
+
+	/**
+	 * Appends the heap peaks recorded by the supplied sampler to the report
+	 *
+	 * @param benchmark - benchmark name, e.g. 'cold_assessment_peak_heap'
+	 * @param scenario - test case ID, e.g. 'ccm_rule_3_3'
+	 * @param heapSampler - sampled heap peaks
+	 */
+	public void write(String benchmark, String scenario, CcmHeapSampler heapSampler) {
+		Map<String, Object> payload = new LinkedHashMap<String, Object>();
+		payload.put("peakJavaHeapBytes", heapSampler.getPeakJavaHeapBytes());
+		payload.put("peakNativeHeapBytes", heapSampler.getPeakNativeHeapBytes());
+		writeResult(benchmark, scenario, payload, heapSampler);
+	}
+
+	/**
+	 * Appends the phases recorded by the startup trace to the report
+	 *
+	 * @param benchmark - benchmark name, e.g. 'cold_start'
+	 * @param scenario - e.g. 'instrumented_process'
+	 * @param startupPhases - phase times relative to process start (see CcmStartupTrace)
+	 */
+	public void write(String benchmark, String scenario, Map<String, Long> startupPhases) {
+		Map<String, Object> phases = new LinkedHashMap<String, Object>();
+		for (Map.Entry<String, Long> startupPhase : startupPhases.entrySet()) {
+			phases.put(startupPhase.getKey() + "Nanos", startupPhase.getValue());
+		}
+		Map<String, Object> payload = new LinkedHashMap<String, Object>();
+		payload.put("phases", new JSONObject(phases));
+		writeResult(benchmark, scenario, payload, startupPhases);
+	}
+
+	/**
+	 * Builds the fields shared by the latency results
+	 *
+	 * @param statistics - measured latencies
+	 *
+	 * @return Map<String, Object> - result fields
+	 */
+	private static Map<String, Object> createLatencyPayload(CcmLatencyStatistics statistics) {
+		Map<String, Object> payload = new LinkedHashMap<String, Object>();
+		payload.put("samples", statistics.getSampleCount());
+		payload.put("meanNanos", statistics.getMeanNanos());
+		payload.put("p50Nanos", statistics.getPercentileNanos(50.0));
+		payload.put("p90Nanos", statistics.getPercentileNanos(90.0));
+		payload.put("p99Nanos", statistics.getPercentileNanos(99.0));
+		return payload;
+	}
+
+	/**
+	 * Appends a single result to the report, i.e. the run timestamp, device,
+	 * benchmark and scenario followed by the benchmark-specific fields
+	 *
+	 * @param benchmark - benchmark name
+	 * @param scenario - test case ID
+	 * @param payload - benchmark-specific fields
+	 * @param summary - logged with the benchmark and scenario
+	 */
+	private void writeResult(String benchmark, String scenario, Map<String, Object> payload, Object summary) {
+		try {
+			JSONObject result = new JSONObject();
+			result.put("timestamp", runTimestamp);
+			result.put("device", Build.MODEL);
+			result.put("sdk", Build.VERSION.SDK_INT);
+			result.put("benchmark", benchmark);
+			result.put("scenario", scenario);
+			for (Map.Entry<String, Object> field : payload.entrySet()) {
+				result.put(field.getKey(), field.getValue());
+			}
+			writeLine(result.toString());
+		} catch (JSONException e) {
+			Log.e(LOG_TAG, "unable to build benchmark result for " + benchmark + "/" + scenario, e);
+		}
+		Log.i(LOG_TAG, benchmark + " [" + scenario + "] " + summary);
+	}
+
+	/**
+	 * Appends a single line to the report file, truncating the file
+	 * first if it holds the results of a previous test run
+	 *
+	 * @param line
+	 */
+	private void writeLine(String line) {
+		boolean append;
+		synchronized (startedReportFiles) {
+			append = !startedReportFiles.add(reportFile.getAbsolutePath());
+		}
+		Writer writer = null;
+		try {
+			writer = new FileWriter(reportFile, append);
+			writer.write(line);
+			writer.write('\n');
+		} catch (IOException e) {
+			Log.e(LOG_TAG, "unable to write benchmark report " + reportFile, e);
+		} finally {
+			if (writer != null) {
+				try {
+					writer.close();
+				} catch (IOException e) {
+					Log.e(LOG_TAG, "unable to close benchmark report " + reportFile, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Getter Method: getReportFile()
+	 */
+	public File getReportFile() {
+		return reportFile;
+	}
+
+} // end of class
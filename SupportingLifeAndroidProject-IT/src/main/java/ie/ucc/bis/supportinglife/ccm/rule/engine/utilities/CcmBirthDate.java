@@ -0,0 +1,118 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import ie.ucc.bis.supportinglife.assessment.model.listener.DateDialogSetListener;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * This class holds a patient date of birth, parsed once from its review
+ * item value (formatted with DateDialogSetListener.DATE_TIME_CUSTOM_FORMAT),
+ * as an epoch day together with the age of the patient in days and months.
+ *
+ * SimpleDateFormat is not thread-safe, so each thread parses and formats
+ * with its own instance.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmBirthDate {
+
+	private static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+
+	private static final ThreadLocal<SimpleDateFormat> BIRTH_DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+		@Override
+		protected SimpleDateFormat initialValue() {
+			return new SimpleDateFormat(DateDialogSetListener.DATE_TIME_CUSTOM_FORMAT, DateDialogSetListener.LOCALE);
+		}
+	};
+
+	private final long epochDay;
+	private final int ageInDays;
+	private final int ageInMonths;
+
+	/**
+	 * Constructor
+	 *
+	 * @param birthDate - date of birth
+	 * @param today - date against which the age is determined
+	 */
+	public CcmBirthDate(Date birthDate, Date today) {
+		Calendar birth = Calendar.getInstance();
+		birth.setTime(birthDate);
+		Calendar current = Calendar.getInstance();
+		current.setTime(today);
+
+		this.epochDay = toEpochDay(birth);
+		this.ageInDays = (int) (toEpochDay(current) - epochDay);
+
+		int months = (current.get(Calendar.YEAR) - birth.get(Calendar.YEAR)) * 12
+				+ (current.get(Calendar.MONTH) - birth.get(Calendar.MONTH));
+		if (current.get(Calendar.DAY_OF_MONTH) < birth.get(Calendar.DAY_OF_MONTH)) {
+			months--;
+		}
+		this.ageInMonths = months;
+	}
+
+	/**
+	 * Parses a date of birth review item value
+	 *
+	 * @param birthDate - e.g. as captured by DateDialogSetListener
+	 *
+	 * @return CcmBirthDate - parsed date of birth, or null if it cannot be parsed
+	 */
+	public static CcmBirthDate parse(String birthDate) {
+		if (birthDate == null) {
+			return null;
+		}
+		try {
+			return new CcmBirthDate(BIRTH_DATE_FORMAT.get().parse(birthDate), new Date());
+		} catch (ParseException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Formats a date of birth as a review item value
+	 *
+	 * @param birthDate
+	 *
+	 * @return String - formatted with DateDialogSetListener.DATE_TIME_CUSTOM_FORMAT
+	 */
+	public static String format(Date birthDate) {
+		return BIRTH_DATE_FORMAT.get().format(birthDate);
+	}
+
+	private static long toEpochDay(Calendar cal) {
+		long localMillis = cal.getTimeInMillis() + cal.getTimeZone().getOffset(cal.getTimeInMillis());
+		return (long) Math.floor((double) localMillis / MILLIS_PER_DAY);
+	}
+
+	/**
+	 * Getter Method: getEpochDay()
+	 *
+	 * i.e. days since 1 January 1970 (local time)
+	 */
+	public long getEpochDay() {
+		return epochDay;
+	}
+
+	/**
+	 * Getter Method: getAgeInDays()
+	 */
+	public int getAgeInDays() {
+		return ageInDays;
+	}
+
+	/**
+	 * Getter Method: getAgeInMonths()
+	 *
+	 * i.e. completed months of age
+	 */
+	public int getAgeInMonths() {
+		return ageInMonths;
+	}
+
+} // end of class
@@ -0,0 +1,173 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import ie.ucc.bis.supportinglife.rule.engine.Diagnostic;
+import ie.ucc.bis.supportinglife.rule.engine.TreatmentRecommendation;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class indexes the diagnostics of a patient assessment by
+ * classification name, so that classification presence checks and
+ * lookups do not rescan the diagnostics.
+ *
+ * Classification keys are case-folded once, when the classification
+ * rules are read (see CcmRuleEngineCache.getOutcomeVocabulary()), rather
+ * than for every assessment; lookups are case-insensitive. Header and
+ * footer diagnostics are counted as they are indexed.
+ *
+ * Treatment descriptions are normalised once, as they are indexed, to the
+ * treatment keys held by the vocabulary (see
+ * CcmOutcomeVocabulary.getTreatmentKey()) so that treatment presence
+ * checks do not reprocess the description text.
+ *
+ * The whole outcome is also available as bitsets of classification and
+ * treatment ids (see CcmOutcome), for comparison in one operation.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmDiagnosticIndex {
+
+	private final Map<String, Diagnostic> diagnosticsByClassification;
+	private final Set<String> treatmentKeys;
+	private int headerNumber;
+	private int footerNumber;
+	private int standardClassificationNumber;
+	private int treatmentNumber;
+	private final CcmOutcome outcome;
+
+	/**
+	 * Constructor
+	 *
+	 * @param patientDiagnostics
+	 * @param vocabulary - classification keys and ids of the CCM rule set
+	 */
+	public CcmDiagnosticIndex(List<Diagnostic> patientDiagnostics, CcmOutcomeVocabulary vocabulary) {
+		diagnosticsByClassification = new HashMap<String, Diagnostic>();
+		treatmentKeys = new HashSet<String>();
+		BitSet classificationIds = new BitSet();
+		BitSet treatmentIds = new BitSet();
+
+		for (Diagnostic diagnostic : patientDiagnostics) {
+			String classificationKey = vocabulary.getClassificationKey(diagnostic.getClassification().getName());
+			if (!diagnosticsByClassification.containsKey(classificationKey)) {
+				diagnosticsByClassification.put(classificationKey, diagnostic);
+			}
+
+			if (diagnostic.isTreatmentHeader()) {
+				headerNumber++;
+			}
+			if (diagnostic.isTreatmentFooter()) {
+				footerNumber++;
+			}
+			// only include those classifications which are not a header or footer
+			if (!diagnostic.isTreatmentHeader() && !diagnostic.isTreatmentFooter()) {
+				standardClassificationNumber++;
+				int classificationId = vocabulary.getClassificationId(diagnostic.getClassification().getName());
+				if (classificationId == CcmOutcomeVocabulary.NO_ID) {
+					throw new IllegalStateException("classification is not in the CCM classification rules: " + diagnostic.getClassification().getName());
+				}
+				classificationIds.set(classificationId);
+			}
+			for (TreatmentRecommendation recommendedTreatment : diagnostic.getTreatmentRecommendations()) {
+				String treatmentKey = vocabulary.getTreatmentKey(recommendedTreatment.getTreatmentDescription());
+				treatmentKeys.add(treatmentKey);
+				int treatmentId = vocabulary.getTreatmentId(treatmentKey);
+				if (treatmentId == CcmOutcomeVocabulary.NO_ID) {
+					throw new IllegalStateException("treatment is not in the CCM treatment table: " + treatmentKey);
+				}
+				treatmentIds.set(treatmentId);
+				treatmentNumber++;
+			}
+		}
+		outcome = new CcmOutcome(vocabulary, classificationIds, treatmentIds);
+	}
+
+	/**
+	 * Canonical (case-folded) key of a classification name
+	 *
+	 * @param classificationName
+	 *
+	 * @return String - classification key
+	 */
+	public static String toClassificationKey(String classificationName) {
+		return classificationName.toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * Determines whether a classification is present in the diagnostics
+	 *
+	 * @param classificationToCheck
+	 *
+	 * @return boolean - whether classification is present
+	 */
+	public boolean classificationPresent(String classificationToCheck) {
+		return diagnosticsByClassification.containsKey(toClassificationKey(classificationToCheck));
+	}
+
+	/**
+	 * Determines whether a treatment is present in the diagnostics
+	 *
+	 * @param treatmentToCheck - treatment description without tab or newline characters
+	 *
+	 * @return boolean - whether treatment is present
+	 */
+	public boolean treatmentPresent(String treatmentToCheck) {
+		return treatmentKeys.contains(treatmentToCheck);
+	}
+
+	/**
+	 * Retrieves the diagnostic of a classification
+	 *
+	 * @param classificationName
+	 *
+	 * @return Diagnostic - or null when the classification is not present
+	 */
+	public Diagnostic getDiagnostic(String classificationName) {
+		return diagnosticsByClassification.get(toClassificationKey(classificationName));
+	}
+
+	/**
+	 * Getter Method: getOutcome()
+	 */
+	public CcmOutcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * Getter Method: getHeaderNumber()
+	 */
+	public int getHeaderNumber() {
+		return headerNumber;
+	}
+
+	/**
+	 * Getter Method: getFooterNumber()
+	 */
+	public int getFooterNumber() {
+		return footerNumber;
+	}
+
+	/**
+	 * Getter Method: getStandardClassificationNumber()
+	 *
+	 * i.e. number of non-header/non-footer classifications
+	 */
+	public int getStandardClassificationNumber() {
+		return standardClassificationNumber;
+	}
+
+	/**
+	 * Getter Method: getTreatmentNumber()
+	 */
+	public int getTreatmentNumber() {
+		return treatmentNumber;
+	}
+
+} // end of class
@@ -0,0 +1,120 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import android.os.Debug;
+
+/**
+ * This class samples the Java heap in use (Runtime) and the native heap
+ * allocated (android.os.Debug) on a background thread between calls to
+ * start() and stop(), and records the peak of each above its level at
+ * start().
+ *
+ * Peaks between two samples are not seen, so the reported peaks are a
+ * lower bound of the true peaks.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmHeapSampler {
+
+	private static final long SAMPLE_INTERVAL_MILLIS = 1L;
+
+	private final String name;
+	private long baselineJavaHeapBytes;
+	private long baselineNativeHeapBytes;
+	private volatile long peakJavaHeapBytes;
+	private volatile long peakNativeHeapBytes;
+	private volatile boolean sampling;
+	private Thread samplingThread;
+
+	/**
+	 * Constructor
+	 *
+	 * @param name - name of the measured operation
+	 */
+	public CcmHeapSampler(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Starts sampling the heaps, after collecting garbage so that
+	 * the baseline holds only live objects
+	 */
+	public void start() {
+		Runtime.getRuntime().gc();
+		baselineJavaHeapBytes = getJavaHeapBytes();
+		baselineNativeHeapBytes = Debug.getNativeHeapAllocatedSize();
+		peakJavaHeapBytes = baselineJavaHeapBytes;
+		peakNativeHeapBytes = baselineNativeHeapBytes;
+		sampling = true;
+
+		samplingThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while (sampling) {
+					sample();
+					try {
+						Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+			}
+		}, "ccm-heap-sampler");
+		samplingThread.setDaemon(true);
+		samplingThread.start();
+	}
+
+	/**
+	 * Stops sampling the heaps, taking a final sample
+	 */
+	public void stop() {
+		sampling = false;
+		try {
+			samplingThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		sample();
+	}
+
+	private void sample() {
+		peakJavaHeapBytes = Math.max(peakJavaHeapBytes, getJavaHeapBytes());
+		peakNativeHeapBytes = Math.max(peakNativeHeapBytes, Debug.getNativeHeapAllocatedSize());
+	}
+
+	private static long getJavaHeapBytes() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Getter Method: getName()
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Getter Method: getPeakJavaHeapBytes()
+	 *
+	 * i.e. peak Java heap in use, above the level at start()
+	 */
+	public long getPeakJavaHeapBytes() {
+		return peakJavaHeapBytes - baselineJavaHeapBytes;
+	}
+
+	/**
+	 * Getter Method: getPeakNativeHeapBytes()
+	 *
+	 * i.e. peak native heap allocated, above the level at start()
+	 */
+	public long getPeakNativeHeapBytes() {
+		return peakNativeHeapBytes - baselineNativeHeapBytes;
+	}
+
+	@Override
+	public String toString() {
+		return name + ": peakJavaHeapBytes=" + getPeakJavaHeapBytes() + ", peakNativeHeapBytes=" + getPeakNativeHeapBytes();
+	}
+
+} // end of class
@@ -0,0 +1,108 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import java.util.Arrays;
+
+/**
+ * This class accumulates latency samples (in nanoseconds) for a single
+ * measured operation and summarises them as throughput, mean and
+ * percentile latencies.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmLatencyStatistics {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final String name;
+	private long[] samples;
+	private int sampleCount;
+	private long totalNanos;
+
+	/**
+	 * Constructor
+	 *
+	 * @param name - name of the measured operation
+	 */
+	public CcmLatencyStatistics(String name) {
+		this.name = name;
+		this.samples = new long[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Records a single latency sample
+	 *
+	 * @param nanos - elapsed time of one operation
+	 */
+	public void record(long nanos) {
+		if (sampleCount == samples.length) {
+			samples = Arrays.copyOf(samples, samples.length * 2);
+		}
+		samples[sampleCount++] = nanos;
+		totalNanos += nanos;
+	}
+
+	/**
+	 * Determines the latency below which the given percentage of
+	 * samples fall (nearest-rank method)
+	 *
+	 * @param percentile - e.g. 99.0
+	 *
+	 * @return long - percentile latency in nanoseconds
+	 */
+	public long getPercentileNanos(double percentile) {
+		if (sampleCount == 0) {
+			return 0;
+		}
+		long[] sortedSamples = Arrays.copyOf(samples, sampleCount);
+		Arrays.sort(sortedSamples);
+		int rank = (int) Math.ceil((percentile / 100.0) * sampleCount);
+		return sortedSamples[Math.max(rank, 1) - 1];
+	}
+
+	/**
+	 * Getter Method: getMeanNanos()
+	 */
+	public long getMeanNanos() {
+		return sampleCount == 0 ? 0 : totalNanos / sampleCount;
+	}
+
+	/**
+	 * Getter Method: getThroughputPerSecond()
+	 *
+	 * i.e. operations completed per second of measured time
+	 */
+	public double getThroughputPerSecond() {
+		return totalNanos == 0 ? 0 : (sampleCount * 1000000000.0) / totalNanos;
+	}
+
+	/**
+	 * Getter Method: getName()
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Getter Method: getSampleCount()
+	 */
+	public int getSampleCount() {
+		return sampleCount;
+	}
+
+	/**
+	 * Getter Method: getTotalNanos()
+	 */
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	@Override
+	public String toString() {
+		return name + ": samples=" + sampleCount
+				+ ", throughput=" + String.format("%.1f", getThroughputPerSecond()) + "/s"
+				+ ", mean=" + (getMeanNanos() / 1000) + "us"
+				+ ", p99=" + (getPercentileNanos(99.0) / 1000) + "us";
+	}
+
+} // end of class
@@ -0,0 +1,134 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import ie.ucc.bis.supportinglife.activity.SupportingLifeBaseActivity;
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.rule.engine.Diagnostic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class places a bounded, least-recently-used cache of assessment
+ * outcomes in front of the CCM Classification and Treatment rule engines.
+ *
+ * Outcomes are keyed by the canonical fingerprint of the patient symptoms
+ * (see CcmSymptomFingerprint). On a cache hit the previously determined
+ * diagnostics are returned without executing any rules. The returned
+ * diagnostics are shared between callers and must be treated as read-only.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmMemoizedAssessmentEvaluator {
+
+	private final CcmBatchAssessmentEvaluator assessmentEvaluator;
+	private final CcmSymptomFingerprint symptomFingerprint;
+	private final Map<String, List<Diagnostic>> outcomeCache;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	/**
+	 * Constructor
+	 *
+	 * @param supportingLifeActivity
+	 * @param birthDateSymptomId - symptom id of the date of birth review item
+	 * @param capacity - maximum number of cached outcomes
+	 */
+	public CcmMemoizedAssessmentEvaluator(SupportingLifeBaseActivity supportingLifeActivity, String birthDateSymptomId, final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+		}
+		this.assessmentEvaluator = new CcmBatchAssessmentEvaluator(supportingLifeActivity);
+		this.symptomFingerprint = new CcmSymptomFingerprint(birthDateSymptomId);
+		// access-ordered, so that the eldest entry is the least recently used
+		this.outcomeCache = new LinkedHashMap<String, List<Diagnostic>>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, List<Diagnostic>> eldest) {
+				if (size() > capacity) {
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Determines the diagnostics of a patient assessment, executing the
+	 * rule engines only if the patient symptoms have not been seen recently
+	 *
+	 * @param reviewItems - patient symptoms
+	 *
+	 * @return List<Diagnostic> - unmodifiable, shared diagnostics
+	 */
+	public synchronized List<Diagnostic> evaluate(ArrayList<ReviewItem> reviewItems) {
+		String fingerprint = symptomFingerprint.fingerprint(reviewItems);
+		List<Diagnostic> patientDiagnostics = outcomeCache.get(fingerprint);
+		if (patientDiagnostics != null) {
+			hitCount++;
+			return patientDiagnostics;
+		}
+		missCount++;
+		patientDiagnostics = Collections.unmodifiableList(
+				new ArrayList<Diagnostic>(assessmentEvaluator.evaluate(reviewItems).getDiagnostics()));
+		outcomeCache.put(fingerprint, patientDiagnostics);
+		return patientDiagnostics;
+	}
+
+	/**
+	 * Discards every cached outcome and resets the counters
+	 */
+	public synchronized void clear() {
+		outcomeCache.clear();
+		hitCount = 0;
+		missCount = 0;
+		evictionCount = 0;
+	}
+
+	/**
+	 * Getter Method: getHitRate()
+	 *
+	 * i.e. proportion of evaluations answered from the cache
+	 */
+	public synchronized double getHitRate() {
+		long evaluations = hitCount + missCount;
+		return evaluations == 0 ? 0.0 : (double) hitCount / evaluations;
+	}
+
+	/**
+	 * Getter Method: getHitCount()
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Getter Method: getMissCount()
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Getter Method: getEvictionCount()
+	 */
+	public synchronized long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Getter Method: getSize()
+	 *
+	 * i.e. number of cached outcomes
+	 */
+	public synchronized int getSize() {
+		return outcomeCache.size();
+	}
+
+} // end of class
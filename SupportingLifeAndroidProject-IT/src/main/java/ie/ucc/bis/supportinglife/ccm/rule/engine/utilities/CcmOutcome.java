@@ -0,0 +1,131 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import java.util.BitSet;
+
+/**
+ * This class holds the outcome of a patient assessment as two bitsets:
+ * the (non-header/non-footer) classifications and the treatments, each
+ * indexed by its id in CcmOutcomeVocabulary.
+ *
+ * Two outcomes are equal when they hold the same classifications and
+ * treatments, regardless of order. Instances are immutable.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmOutcome {
+
+	private final CcmOutcomeVocabulary vocabulary;
+	private final BitSet classifications;
+	private final BitSet treatments;
+
+	/**
+	 * Constructor
+	 *
+	 * @param vocabulary - vocabulary of the classification and treatment ids
+	 * @param classifications - classification ids
+	 * @param treatments - treatment ids
+	 */
+	public CcmOutcome(CcmOutcomeVocabulary vocabulary, BitSet classifications, BitSet treatments) {
+		this.vocabulary = vocabulary;
+		this.classifications = (BitSet) classifications.clone();
+		this.treatments = (BitSet) treatments.clone();
+	}
+
+	/**
+	 * Builds the outcome made up of the named classifications and treatments
+	 *
+	 * @param vocabulary - vocabulary of the classification and treatment ids
+	 * @param classificationNames
+	 * @param treatmentDescriptions - treatment descriptions without tab or newline characters
+	 *
+	 * @return CcmOutcome
+	 */
+	public static CcmOutcome of(CcmOutcomeVocabulary vocabulary, String[] classificationNames, String[] treatmentDescriptions) {
+		BitSet classifications = new BitSet();
+		for (String classificationName : classificationNames) {
+			int classificationId = vocabulary.getClassificationId(classificationName);
+			if (classificationId == CcmOutcomeVocabulary.NO_ID) {
+				throw new IllegalArgumentException("classification is not in the CCM classification rules: " + classificationName);
+			}
+			classifications.set(classificationId);
+		}
+		BitSet treatments = new BitSet();
+		for (String treatmentDescription : treatmentDescriptions) {
+			int treatmentId = vocabulary.getTreatmentId(treatmentDescription);
+			if (treatmentId == CcmOutcomeVocabulary.NO_ID) {
+				throw new IllegalArgumentException("treatment is not in the CCM treatment table: " + treatmentDescription);
+			}
+			treatments.set(treatmentId);
+		}
+		return new CcmOutcome(vocabulary, classifications, treatments);
+	}
+
+	/**
+	 * Getter Method: getClassificationIds()
+	 */
+	public int[] getClassificationIds() {
+		return toIds(classifications);
+	}
+
+	/**
+	 * Getter Method: getTreatmentIds()
+	 */
+	public int[] getTreatmentIds() {
+		return toIds(treatments);
+	}
+
+	/**
+	 * Getter Method: getClassifications()
+	 */
+	public BitSet getClassifications() {
+		return (BitSet) classifications.clone();
+	}
+
+	/**
+	 * Getter Method: getTreatments()
+	 */
+	public BitSet getTreatments() {
+		return (BitSet) treatments.clone();
+	}
+
+	private static int[] toIds(BitSet bits) {
+		int[] ids = new int[bits.cardinality()];
+		int index = 0;
+		for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+			ids[index++] = id;
+		}
+		return ids;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CcmOutcome)) {
+			return false;
+		}
+		CcmOutcome otherOutcome = (CcmOutcome) other;
+		return classifications.equals(otherOutcome.classifications) && treatments.equals(otherOutcome.treatments);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * classifications.hashCode() + treatments.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder outcome = new StringBuilder("classifications: [");
+		for (int id = classifications.nextSetBit(0); id >= 0; id = classifications.nextSetBit(id + 1)) {
+			outcome.append('\'').append(vocabulary.getClassificationName(id)).append("' ");
+		}
+		outcome.append("], treatments: [");
+		for (int id = treatments.nextSetBit(0); id >= 0; id = treatments.nextSetBit(id + 1)) {
+			outcome.append('\'').append(vocabulary.getTreatmentDescription(id)).append("' ");
+		}
+		return outcome.append(']').toString();
+	}
+
+} // end of class
@@ -0,0 +1,199 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class assigns compact integer ids to CCM classifications and
+ * treatments, so that patient outcomes can be held and compared as
+ * bitsets (see CcmOutcome) rather than as display strings.
+ *
+ * Ids do not depend on the order in which classifications and treatments
+ * are met, so they are the same from run to run:
+ *
+ * 		-> classification ids are positions in the sorted (case-folded)
+ * 		   classification names of the CCM classification rules; the
+ * 		   vocabulary is built once, when the rules are read (see
+ * 		   CcmRuleEngineCache.getOutcomeVocabulary())
+ * 		-> treatment ids are positions in the fixed table of normalised
+ * 		   CCM treatment descriptions below; new treatments must be
+ * 		   appended to the table so that existing ids are kept
+ *
+ * Unlike the classifications (see getSystemCcmClassifications()), the
+ * treatments of the loaded treatment rules are not available to the
+ * tests, so the table cannot be built from them. A treatment which is not in the table
+ * has no id (NO_ID) and is rejected when an outcome is built (see
+ * CcmOutcome and CcmDiagnosticIndex), rather than compared by its text;
+ * CcmOutcomeScenarioTest checks that the treatments of every ccm_rule
+ * scenario are in the table.
+ *
+ * The treatment keys (the normalised treatment descriptions of the table)
+ * are computed once, when the vocabulary is built. getTreatmentKey()
+ * returns the key instance held by the vocabulary, so equal treatments
+ * share one key instance and nothing is added at lookup time.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmOutcomeVocabulary {
+
+	public static final int NO_ID = -1;
+
+	// normalised CCM treatment descriptions, in treatment id order
+	private static final String[] TREATMENT_DESCRIPTIONS = {
+		"Advise caregiver to give more fluids and continue feeding",
+		"Advise to give fluids and continue feeding",
+		"Advise to keep child warm, if 'child is NOT hot with fever'",
+		"Apply antibiotic eye ointment",
+		"Arrange transportation and help solve other difficulties in referral",
+		"Begin giving ORS solution immediately",
+		"Do not give antibiotic or antimalarial",
+		"Dose for LA: Not recommended",
+		"Explain why child needs to go to health facility",
+		"Follow up child in 3 days",
+		"Give ORS",
+		"Give first dose of LA: 1 tablet",
+		"Give first dose of LA: 2 tablets",
+		"REFER URGENTLY to health facility",
+		"Refer child to health facility",
+		"TREAT at home and ADVISE on home care",
+		"Write a referral note",
+		"Write referral note"
+	};
+
+	private final Map<String, String> classificationKeys;
+	private final Map<String, Integer> classificationIds;
+	private final String[] classificationNames;
+	private final Map<String, String> treatmentKeys;
+	private final Map<String, Integer> treatmentIds;
+
+	/**
+	 * Constructor
+	 *
+	 * @param ruleClassificationNames - names of the classifications of the CCM classification rules
+	 */
+	public CcmOutcomeVocabulary(Collection<String> ruleClassificationNames) {
+		Map<String, String> keys = new HashMap<String, String>();
+		// sorted by classification key, so that ids do not depend on rule order
+		TreeMap<String, String> namesByKey = new TreeMap<String, String>();
+		for (String classificationName : ruleClassificationNames) {
+			String classificationKey = CcmDiagnosticIndex.toClassificationKey(classificationName);
+			keys.put(classificationName, classificationKey);
+			if (!namesByKey.containsKey(classificationKey)) {
+				namesByKey.put(classificationKey, classificationName);
+			}
+		}
+
+		Map<String, Integer> ids = new HashMap<String, Integer>(namesByKey.size() * 2);
+		classificationNames = new String[namesByKey.size()];
+		for (Map.Entry<String, String> classification : namesByKey.entrySet()) {
+			classificationNames[ids.size()] = classification.getValue();
+			ids.put(classification.getKey(), ids.size());
+		}
+		classificationKeys = Collections.unmodifiableMap(keys);
+		classificationIds = Collections.unmodifiableMap(ids);
+
+		Map<String, String> treatmentKeyInstances = new HashMap<String, String>(TREATMENT_DESCRIPTIONS.length * 2);
+		Map<String, Integer> treatmentIdsByKey = new HashMap<String, Integer>(TREATMENT_DESCRIPTIONS.length * 2);
+		for (int treatmentId = 0; treatmentId < TREATMENT_DESCRIPTIONS.length; treatmentId++) {
+			String treatmentKey = CcmRuleEngineUtilities.normaliseTreatmentDescription(TREATMENT_DESCRIPTIONS[treatmentId]);
+			treatmentKeyInstances.put(treatmentKey, treatmentKey);
+			treatmentIdsByKey.put(treatmentKey, treatmentId);
+		}
+		treatmentKeys = Collections.unmodifiableMap(treatmentKeyInstances);
+		treatmentIds = Collections.unmodifiableMap(treatmentIdsByKey);
+	}
+
+	/**
+	 * Provides the canonical (case-folded) key of a classification, as
+	 * computed when the vocabulary was built
+	 *
+	 * @param classificationName
+	 *
+	 * @return String - classification key
+	 */
+	public String getClassificationKey(String classificationName) {
+		String classificationKey = classificationKeys.get(classificationName);
+		if (classificationKey == null) {
+			// not spelt as in the classification rules
+			classificationKey = CcmDiagnosticIndex.toClassificationKey(classificationName);
+		}
+		return classificationKey;
+	}
+
+	/**
+	 * Provides the id of a classification
+	 *
+	 * @param classificationName
+	 *
+	 * @return int - classification id, or NO_ID if the classification is not in the rules
+	 */
+	public int getClassificationId(String classificationName) {
+		Integer classificationId = classificationIds.get(getClassificationKey(classificationName));
+		return classificationId == null ? NO_ID : classificationId;
+	}
+
+	/**
+	 * Provides the id of a treatment
+	 *
+	 * @param treatmentKey - normalised treatment description
+	 *
+	 * @return int - treatment id, or NO_ID if the treatment is not in the table
+	 */
+	public int getTreatmentId(String treatmentKey) {
+		Integer treatmentId = treatmentIds.get(treatmentKey);
+		return treatmentId == null ? NO_ID : treatmentId;
+	}
+
+	/**
+	 * Provides the key of a treatment, i.e. its normalised description (see
+	 * CcmRuleEngineUtilities.normaliseTreatmentDescription()), as the key
+	 * instance computed when the vocabulary was built
+	 *
+	 * @param treatmentDescription - treatment description as recommended by the rules
+	 *
+	 * @return String - treatment key; a treatment which is not in the table
+	 *                  is returned normalised, but is not held
+	 */
+	public String getTreatmentKey(String treatmentDescription) {
+		String treatmentKey = CcmRuleEngineUtilities.normaliseTreatmentDescription(treatmentDescription);
+		String heldTreatmentKey = treatmentKeys.get(treatmentKey);
+		return heldTreatmentKey == null ? treatmentKey : heldTreatmentKey;
+	}
+
+	/**
+	 * Getter Method: getClassificationName()
+	 */
+	public String getClassificationName(int classificationId) {
+		return classificationNames[classificationId];
+	}
+
+	/**
+	 * Getter Method: getTreatmentDescription()
+	 */
+	public String getTreatmentDescription(int treatmentId) {
+		return TREATMENT_DESCRIPTIONS[treatmentId];
+	}
+
+	/**
+	 * Getter Method: getClassificationNumber()
+	 *
+	 * i.e. number of classification ids
+	 */
+	public int getClassificationNumber() {
+		return classificationNames.length;
+	}
+
+	/**
+	 * Getter Method: getTreatmentNumber()
+	 *
+	 * i.e. number of treatment ids
+	 */
+	public int getTreatmentNumber() {
+		return TREATMENT_DESCRIPTIONS.length;
+	}
+
+} // end of class
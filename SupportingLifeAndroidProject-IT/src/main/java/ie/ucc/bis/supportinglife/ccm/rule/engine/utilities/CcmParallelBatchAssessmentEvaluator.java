@@ -0,0 +1,179 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import ie.ucc.bis.supportinglife.activity.SupportingLifeBaseActivity;
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+import ie.ucc.bis.supportinglife.domain.PatientAssessment;
+import ie.ucc.bis.supportinglife.rule.engine.ClassificationRuleEngine;
+import ie.ucc.bis.supportinglife.rule.engine.TreatmentRuleEngine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class evaluates a batch of patient assessments against the CCM
+ * Classification and Treatment rule engines using several worker threads.
+ *
+ * Workers claim small chunks of the batch as they become free, so that
+ * faster workers take on more of the batch. Each worker evaluates with
+ * its own Classification and Treatment rule engines. The rule engines
+ * keep per-evaluation state, and the classification rule list passed to
+ * determinePatientClassifications() is not safe to share between
+ * threads, so no engine or rule list is shared between workers.
+ *
+ * The worker threads and the rule engines of each worker (i.e. one copy
+ * of the CCM rules per worker) are created once, when the evaluator is
+ * built, and are reused by every batch, so that evaluateAll() measures
+ * evaluation rather than rule parsing and thread startup. The worker
+ * threads are released by shutdown().
+ *
+ * Results are returned in batch order. Batches are evaluated one at a time.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmParallelBatchAssessmentEvaluator {
+
+	private static final int CHUNK_SIZE = 64;
+
+	private final SupportingLifeBaseActivity supportingLifeActivity;
+	private final int threadCount;
+	private final ClassificationRuleEngine[] classificationRuleEngines;
+	private final TreatmentRuleEngine[] treatmentRuleEngines;
+	private final ExecutorService executor;
+
+	/**
+	 * Constructor
+	 *
+	 * @param supportingLifeActivity
+	 * @param threadCount - number of worker threads
+	 */
+	public CcmParallelBatchAssessmentEvaluator(SupportingLifeBaseActivity supportingLifeActivity, int threadCount) {
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("thread count must be at least 1: " + threadCount);
+		}
+		this.supportingLifeActivity = supportingLifeActivity;
+		this.threadCount = threadCount;
+
+		// per-worker engine instances and rules (nothing is shared between workers)
+		classificationRuleEngines = new ClassificationRuleEngine[threadCount];
+		treatmentRuleEngines = new TreatmentRuleEngine[threadCount];
+		for (int worker = 0; worker < threadCount; worker++) {
+			long startTime = CcmRuleEngineMetrics.startTimer();
+			classificationRuleEngines[worker] = new ClassificationRuleEngine();
+			classificationRuleEngines[worker].readCcmClassificationRules(supportingLifeActivity);
+			treatmentRuleEngines[worker] = new TreatmentRuleEngine();
+			treatmentRuleEngines[worker].readCcmTreatmentRules(supportingLifeActivity);
+			CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_LOADING, startTime);
+		}
+		executor = Executors.newFixedThreadPool(threadCount);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * Uses one worker thread per available processor.
+	 *
+	 * @param supportingLifeActivity
+	 */
+	public CcmParallelBatchAssessmentEvaluator(SupportingLifeBaseActivity supportingLifeActivity) {
+		this(supportingLifeActivity, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Evaluates every patient assessment in the list
+	 *
+	 * @param assessments - patient symptoms, one review item list per assessment
+	 *
+	 * @return List<PatientAssessment> - results in the same order as the assessments
+	 */
+	public synchronized List<PatientAssessment> evaluateAll(final List<ArrayList<ReviewItem>> assessments) {
+		final PatientAssessment[] patientAssessments = new PatientAssessment[assessments.size()];
+		final AtomicInteger nextChunk = new AtomicInteger();
+
+		List<Future<Void>> workers = new ArrayList<Future<Void>>(threadCount);
+		try {
+			for (int worker = 0; worker < threadCount; worker++) {
+				final int workerIndex = worker;
+				workers.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						evaluateChunks(workerIndex, assessments, patientAssessments, nextChunk);
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> worker : workers) {
+				worker.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("parallel batch assessment was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("parallel batch assessment failed", e.getCause());
+		} finally {
+			// a worker still running after a failure would share its rule
+			// engines with the next batch, so the evaluator is shut down
+			for (Future<Void> worker : workers) {
+				if (!worker.isDone()) {
+					shutdown();
+					break;
+				}
+			}
+		}
+
+		return Arrays.asList(patientAssessments);
+	}
+
+	/**
+	 * Releases the worker threads; the evaluator cannot be used afterwards
+	 * (this also happens when a batch fails)
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Worker loop: claims chunks of the batch until none remain
+	 *
+	 * @param worker - index of the worker, i.e. of its rule engines
+	 * @param assessments
+	 * @param patientAssessments - results, indexed as the assessments
+	 * @param nextChunk - start index of the next unclaimed chunk
+	 */
+	private void evaluateChunks(int worker, List<ArrayList<ReviewItem>> assessments, PatientAssessment[] patientAssessments, AtomicInteger nextChunk) {
+		ClassificationRuleEngine classificationRuleEngine = classificationRuleEngines[worker];
+		TreatmentRuleEngine treatmentRuleEngine = treatmentRuleEngines[worker];
+
+		int chunkStart;
+		while ((chunkStart = nextChunk.getAndAdd(CHUNK_SIZE)) < assessments.size()) {
+			int chunkEnd = Math.min(chunkStart + CHUNK_SIZE, assessments.size());
+			for (int index = chunkStart; index < chunkEnd; index++) {
+				ArrayList<ReviewItem> reviewItems = assessments.get(index);
+				PatientAssessment patientAssessment = new PatientAssessment();
+				long startTime = CcmRuleEngineMetrics.startTimer();
+				classificationRuleEngine.determinePatientClassifications(supportingLifeActivity, reviewItems, patientAssessment, classificationRuleEngine.getSystemCcmClassifications());
+				CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_CLASSIFICATION, startTime);
+				startTime = CcmRuleEngineMetrics.startTimer();
+				treatmentRuleEngine.determineCcmTreatments(supportingLifeActivity, reviewItems, patientAssessment);
+				CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_TREATMENT, startTime);
+				CcmRuleEngineMetrics.recordClassifications(patientAssessment.getDiagnostics());
+				patientAssessments[index] = patientAssessment;
+			}
+		}
+	}
+
+	/**
+	 * Getter Method: getThreadCount()
+	 */
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+} // end of class
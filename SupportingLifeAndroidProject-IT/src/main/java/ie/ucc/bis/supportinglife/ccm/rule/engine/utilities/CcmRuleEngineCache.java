@@ -0,0 +1,112 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import ie.ucc.bis.supportinglife.activity.SupportingLifeBaseActivity;
+import ie.ucc.bis.supportinglife.rule.engine.Classification;
+import ie.ucc.bis.supportinglife.rule.engine.ClassificationRuleEngine;
+import ie.ucc.bis.supportinglife.rule.engine.TreatmentRuleEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class holds the CCM Classification and Treatment rule engines
+ * once their rule files have been read, so that the rule XML is only
+ * parsed once per process rather than once per patient assessment.
+ *
+ * The rules are read on first use, by the calling thread. A rule engine
+ * is only held once its rules have been read successfully, so a failed
+ * read is retried on next use. The supplied activity is only used while
+ * the rules are read; it is not held by this class.
+ *
+ * When the classification rules are read, the outcome vocabulary of the
+ * rule set (see CcmOutcomeVocabulary) is built once and held alongside
+ * the rule engine (see getOutcomeVocabulary()). It holds the canonical
+ * (case-folded) key and the id of every classification, so that the
+ * diagnostics of each assessment can be indexed without case-folding
+ * them again.
+ *
+ * The loaded rule set is shared by every caller and must be treated
+ * as read-only.
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRuleEngineCache {
+
+	private static ClassificationRuleEngine classificationRuleEngine;
+	private static TreatmentRuleEngine treatmentRuleEngine;
+	private static CcmOutcomeVocabulary outcomeVocabulary;
+
+	/**
+	 * Provides the shared Classification rule engine, reading the
+	 * CCM classification rules on first use.
+	 *
+	 * @param supportingLifeActivity
+	 *
+	 * @return ClassificationRuleEngine - engine with rules loaded
+	 */
+	public static synchronized ClassificationRuleEngine getClassificationRuleEngine(SupportingLifeBaseActivity supportingLifeActivity) {
+		if (classificationRuleEngine == null) {
+			long startTime = CcmRuleEngineMetrics.startTimer();
+			ClassificationRuleEngine ruleEngine = new ClassificationRuleEngine();
+			ruleEngine.readCcmClassificationRules(supportingLifeActivity);
+			CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_LOADING, startTime);
+			CcmStartupTrace.mark(CcmStartupTrace.PHASE_CLASSIFICATION_RULES_LOADED);
+			outcomeVocabulary = buildOutcomeVocabulary(ruleEngine);
+			classificationRuleEngine = ruleEngine;
+		}
+		return classificationRuleEngine;
+	}
+
+	/**
+	 * Provides the outcome vocabulary (classification keys and ids) of
+	 * the CCM classification rules, reading the rules on first use.
+	 *
+	 * @param supportingLifeActivity
+	 *
+	 * @return CcmOutcomeVocabulary
+	 */
+	public static synchronized CcmOutcomeVocabulary getOutcomeVocabulary(SupportingLifeBaseActivity supportingLifeActivity) {
+		getClassificationRuleEngine(supportingLifeActivity);
+		return outcomeVocabulary;
+	}
+
+	/**
+	 * Provides the shared Treatment rule engine, reading the
+	 * CCM treatment rules on first use.
+	 *
+	 * @param supportingLifeActivity
+	 *
+	 * @return TreatmentRuleEngine - engine with rules loaded
+	 */
+	public static synchronized TreatmentRuleEngine getTreatmentRuleEngine(SupportingLifeBaseActivity supportingLifeActivity) {
+		if (treatmentRuleEngine == null) {
+			long startTime = CcmRuleEngineMetrics.startTimer();
+			TreatmentRuleEngine ruleEngine = new TreatmentRuleEngine();
+			ruleEngine.readCcmTreatmentRules(supportingLifeActivity);
+			CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_LOADING, startTime);
+			CcmStartupTrace.mark(CcmStartupTrace.PHASE_TREATMENT_RULES_LOADED);
+			treatmentRuleEngine = ruleEngine;
+		}
+		return treatmentRuleEngine;
+	}
+
+	/**
+	 * Discards the cached rule engines so that the rules are
+	 * read again on next use.
+	 */
+	public static synchronized void clear() {
+		classificationRuleEngine = null;
+		treatmentRuleEngine = null;
+		outcomeVocabulary = null;
+	}
+
+	private static CcmOutcomeVocabulary buildOutcomeVocabulary(ClassificationRuleEngine ruleEngine) {
+		List<String> classificationNames = new ArrayList<String>();
+		for (Classification classification : ruleEngine.getSystemCcmClassifications()) {
+			classificationNames.add(classification.getName());
+		}
+		return new CcmOutcomeVocabulary(classificationNames);
+	}
+
+} // end of class
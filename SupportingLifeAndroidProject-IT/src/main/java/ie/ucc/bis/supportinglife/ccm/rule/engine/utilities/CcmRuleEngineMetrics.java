@@ -0,0 +1,177 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import ie.ucc.bis.supportinglife.rule.engine.Diagnostic;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class provides optional instrumentation of the CCM Classification
+ * and Treatment rule engines. When enabled it records:
+ *
+ * 		-> per phase (loading, classification, treatment): the number of
+ * 		   executions and their cumulative time in nanoseconds
+ * 		-> per classification: the number of assessments it was matched in
+ *
+ * When disabled (the default) each hook costs a single volatile read.
+ *
+ * Usage:
+ *
+ * 		long startTime = CcmRuleEngineMetrics.startTimer();
+ * 		... execute phase ...
+ * 		CcmRuleEngineMetrics.recordPhase(CcmRuleEngineMetrics.PHASE_CLASSIFICATION, startTime);
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmRuleEngineMetrics {
+
+	public static final String PHASE_LOADING = "loading";
+	public static final String PHASE_CLASSIFICATION = "classification";
+	public static final String PHASE_TREATMENT = "treatment";
+
+	// start time of a phase which began while metrics were disabled
+	private static final long TIMER_NOT_STARTED = 0;
+
+	private static volatile boolean enabled;
+	private static final Map<String, long[]> PHASE_TOTALS = new LinkedHashMap<String, long[]>();
+	private static final Map<String, Integer> CLASSIFICATION_MATCHES = new LinkedHashMap<String, Integer>();
+
+	/**
+	 * Starts timing a phase
+	 *
+	 * @return long - start time, or 0 when metrics are disabled
+	 */
+	public static long startTimer() {
+		return enabled ? System.nanoTime() : TIMER_NOT_STARTED;
+	}
+
+	/**
+	 * Records one execution of a phase; a phase which began while metrics
+	 * were disabled is not recorded, even if metrics have since been enabled
+	 *
+	 * @param phase - e.g. PHASE_CLASSIFICATION
+	 * @param startTime - as returned by startTimer()
+	 */
+	public static void recordPhase(String phase, long startTime) {
+		if (!enabled || startTime == TIMER_NOT_STARTED) {
+			return;
+		}
+		long elapsedNanos = System.nanoTime() - startTime;
+		synchronized (PHASE_TOTALS) {
+			long[] totals = PHASE_TOTALS.get(phase);
+			if (totals == null) {
+				totals = new long[2];
+				PHASE_TOTALS.put(phase, totals);
+			}
+			totals[0]++;
+			totals[1] += elapsedNanos;
+		}
+	}
+
+	/**
+	 * Records the classifications matched in a patient assessment
+	 *
+	 * @param patientDiagnostics
+	 */
+	public static void recordClassifications(List<Diagnostic> patientDiagnostics) {
+		if (!enabled) {
+			return;
+		}
+		synchronized (CLASSIFICATION_MATCHES) {
+			for (Diagnostic diagnostic : patientDiagnostics) {
+				String classificationName = diagnostic.getClassification().getName();
+				Integer matches = CLASSIFICATION_MATCHES.get(classificationName);
+				CLASSIFICATION_MATCHES.put(classificationName, matches == null ? 1 : matches + 1);
+			}
+		}
+	}
+
+	/**
+	 * Getter Method: getPhaseCount()
+	 *
+	 * i.e. number of recorded executions of the phase
+	 */
+	public static long getPhaseCount(String phase) {
+		synchronized (PHASE_TOTALS) {
+			long[] totals = PHASE_TOTALS.get(phase);
+			return totals == null ? 0 : totals[0];
+		}
+	}
+
+	/**
+	 * Getter Method: getPhaseNanos()
+	 *
+	 * i.e. cumulative time of the recorded executions of the phase
+	 */
+	public static long getPhaseNanos(String phase) {
+		synchronized (PHASE_TOTALS) {
+			long[] totals = PHASE_TOTALS.get(phase);
+			return totals == null ? 0 : totals[1];
+		}
+	}
+
+	/**
+	 * Getter Method: getClassificationMatches()
+	 *
+	 * i.e. number of assessments in which the classification was matched
+	 */
+	public static int getClassificationMatches(String classificationName) {
+		synchronized (CLASSIFICATION_MATCHES) {
+			Integer matches = CLASSIFICATION_MATCHES.get(classificationName);
+			return matches == null ? 0 : matches;
+		}
+	}
+
+	/**
+	 * Summarises the recorded metrics, one line per phase and
+	 * per classification
+	 *
+	 * @return String - metrics summary
+	 */
+	public static String dump() {
+		StringBuilder metrics = new StringBuilder();
+		synchronized (PHASE_TOTALS) {
+			for (Map.Entry<String, long[]> phase : PHASE_TOTALS.entrySet()) {
+				metrics.append("phase ").append(phase.getKey())
+					.append(": count=").append(phase.getValue()[0])
+					.append(", nanos=").append(phase.getValue()[1]).append('\n');
+			}
+		}
+		synchronized (CLASSIFICATION_MATCHES) {
+			for (Map.Entry<String, Integer> classification : CLASSIFICATION_MATCHES.entrySet()) {
+				metrics.append("classification '").append(classification.getKey())
+					.append("': matches=").append(classification.getValue()).append('\n');
+			}
+		}
+		return metrics.toString();
+	}
+
+	/**
+	 * Discards all recorded metrics
+	 */
+	public static void reset() {
+		synchronized (PHASE_TOTALS) {
+			PHASE_TOTALS.clear();
+		}
+		synchronized (CLASSIFICATION_MATCHES) {
+			CLASSIFICATION_MATCHES.clear();
+		}
+	}
+
+	/**
+	 * Getter Method: isEnabled()
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Setter Method: setEnabled()
+	 */
+	public static void setEnabled(boolean enabled) {
+		CcmRuleEngineMetrics.enabled = enabled;
+	}
+
+} // end of class
@@ -3,6 +3,7 @@ package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
 import ie.ucc.bis.supportinglife.rule.engine.Diagnostic;
 import ie.ucc.bis.supportinglife.rule.engine.TreatmentRecommendation;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -49,10 +50,7 @@ public class CcmRuleEngineUtilities {
 		
         for (Diagnostic diagnostic : patientDiagnostics) {
         	for (TreatmentRecommendation recommendedTreatment : diagnostic.getTreatmentRecommendations()) {
-        		// need to remove all newline and tab characters
-        		String treatmentDescription = recommendedTreatment.getTreatmentDescription().replace("\t", "").replace("\n", "").replace("\\n", "");
-
-            	if (treatmentDescription.equals(treatmentToCheck)) {
+            	if (normaliseTreatmentDescription(recommendedTreatment.getTreatmentDescription()).equals(treatmentToCheck)) {
             		treatmentPresent = true;
             	}
         	}	
@@ -101,4 +99,60 @@ public class CcmRuleEngineUtilities {
 		return treatmentCount;
 	}
 	
+	/**
+	 * Utility method to build a canonical description of the classifications
+	 * and treatments associated with a patient assessment, in the order that
+	 * the rule engines produced them. Two assessments with equal descriptions
+	 * have received identical diagnostics.
+	 * 
+	 * @param patientDiagnostics
+	 * 
+	 * @return List<String> - one entry per classification and treatment
+	 */
+	public static List<String> describeOutcome(List<Diagnostic> patientDiagnostics) {
+		List<String> outcome = new ArrayList<String>();
+		
+        for (Diagnostic diagnostic : patientDiagnostics) {
+        	outcome.add("classification:" + diagnostic.getClassification().getName()
+        			+ (diagnostic.isTreatmentHeader() ? " [header]" : "")
+        			+ (diagnostic.isTreatmentFooter() ? " [footer]" : ""));
+        	for (TreatmentRecommendation recommendedTreatment : diagnostic.getTreatmentRecommendations()) {
+        		outcome.add("treatment:" + recommendedTreatment.getTreatmentDescription());
+        	}
+        }
+		
+		return outcome;
+	}
+	
+	/**
+	 * Utility method to normalise a treatment description for matching, i.e.
+	 * remove all tab and newline characters and literal backslash-n sequences in a
+	 * single pass.
+	 * 
+	 * @param treatmentDescription
+	 * 
+	 * @return String - normalised treatment description
+	 */
+	public static String normaliseTreatmentDescription(String treatmentDescription) {
+		StringBuilder normalisedDescription = new StringBuilder(treatmentDescription.length());
+		boolean pendingBackslash = false;
+		
+		for (int index = 0; index < treatmentDescription.length(); index++) {
+			char character = treatmentDescription.charAt(index);
+			if (character == '\t' || character == '\n') {
+				continue;
+			}
+			if (pendingBackslash && character == 'n') {
+				// drop the literal backslash-n sequence
+				normalisedDescription.setLength(normalisedDescription.length() - 1);
+				pendingBackslash = false;
+				continue;
+			}
+			normalisedDescription.append(character);
+			pendingBackslash = (character == '\\');
+		}
+		
+		return normalisedDescription.toString();
+	}
+	
 } // end of class
\ No newline at end of file
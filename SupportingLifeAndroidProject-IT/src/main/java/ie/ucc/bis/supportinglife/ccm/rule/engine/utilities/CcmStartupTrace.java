@@ -0,0 +1,191 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * This class records the named phases of a cold start of the application,
+ * i.e. the time at which each phase was first reached, so that startup
+ * regressions can be detected from release to release:
+ *
+ * 		-> process start
+ * 		-> Application initialised
+ * 		-> HomeActivity first frame drawn
+ * 		-> CcmAssessmentActivity first question rendered
+ * 		-> CCM classification / treatment rules loaded
+ *
+ * Only the first mark of each phase is kept. Phase times are reported in
+ * nanoseconds since the process start mark (or since the earliest mark,
+ * when process start has not been marked). Marks are taken on the
+ * elapsed realtime clock, the clock on which the kernel records the
+ * start time of the process (see markProcessStart()).
+ *
+ * Usage:
+ *
+ * 		CcmStartupTrace.mark(CcmStartupTrace.PHASE_HOME_FIRST_FRAME);
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmStartupTrace {
+
+	public static final String PHASE_PROCESS_START = "process_start";
+	public static final String PHASE_APPLICATION_INIT = "application_init";
+	public static final String PHASE_HOME_FIRST_FRAME = "home_first_frame";
+	public static final String PHASE_CCM_FIRST_QUESTION = "ccm_first_question";
+	public static final String PHASE_CLASSIFICATION_RULES_LOADED = "classification_rules_loaded";
+	public static final String PHASE_TREATMENT_RULES_LOADED = "treatment_rules_loaded";
+
+	private static final String LOG_TAG = "ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmStartupTrace";
+	private static final String PROCESS_STAT_FILE = "/proc/self/stat";
+	// field of /proc/self/stat following the process name which holds the
+	// process start time, i.e. field 22 ('starttime') of proc(5)
+	private static final int PROCESS_STAT_START_TIME_FIELD = 19;
+	// kernel clock ticks per second (USER_HZ), fixed at 100 on Android
+	private static final long CLOCK_TICKS_PER_SECOND = 100L;
+
+	private static final Map<String, Long> PHASE_MARKS = new LinkedHashMap<String, Long>();
+
+	/**
+	 * Records that a phase has been reached, unless it was reached before
+	 *
+	 * @param phase - e.g. PHASE_HOME_FIRST_FRAME
+	 */
+	public static void mark(String phase) {
+		markAt(phase, elapsedRealtimeNanos());
+	}
+
+	/**
+	 * Records that a phase was reached at the supplied time, unless it
+	 * was reached before
+	 *
+	 * @param phase - e.g. PHASE_PROCESS_START
+	 * @param markTime - elapsed realtime in nanoseconds
+	 */
+	public static void markAt(String phase, long markTime) {
+		synchronized (PHASE_MARKS) {
+			if (!PHASE_MARKS.containsKey(phase)) {
+				PHASE_MARKS.put(phase, markTime);
+			}
+		}
+	}
+
+	/**
+	 * Records the time at which the kernel started this process, as read
+	 * from the 'starttime' field of /proc/self/stat (in clock ticks since
+	 * boot)
+	 *
+	 * @return boolean - false if the process start time could not be read
+	 */
+	public static boolean markProcessStart() {
+		BufferedReader reader = null;
+		try {
+			reader = new BufferedReader(new FileReader(PROCESS_STAT_FILE));
+			String processStat = reader.readLine();
+			// the process name may contain spaces, so the fields are counted from its closing ')'
+			String[] fields = processStat.substring(processStat.lastIndexOf(')') + 2).split(" ");
+			long startTicks = Long.parseLong(fields[PROCESS_STAT_START_TIME_FIELD]);
+			markAt(PHASE_PROCESS_START, startTicks * (1000000000L / CLOCK_TICKS_PER_SECOND));
+			return true;
+		} catch (IOException e) {
+			Log.e(LOG_TAG, "unable to read " + PROCESS_STAT_FILE, e);
+		} catch (RuntimeException e) {
+			Log.e(LOG_TAG, "unable to parse " + PROCESS_STAT_FILE, e);
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (IOException e) {
+					Log.e(LOG_TAG, "unable to close " + PROCESS_STAT_FILE, e);
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determines whether a phase has been reached
+	 *
+	 * @param phase
+	 *
+	 * @return boolean
+	 */
+	public static boolean isMarked(String phase) {
+		synchronized (PHASE_MARKS) {
+			return PHASE_MARKS.containsKey(phase);
+		}
+	}
+
+	/**
+	 * Getter Method: getPhaseNanos()
+	 *
+	 * i.e. time at which the phase was reached, relative to process start,
+	 *      or -1 if the phase has not been reached
+	 */
+	public static long getPhaseNanos(String phase) {
+		synchronized (PHASE_MARKS) {
+			Long markTime = PHASE_MARKS.get(phase);
+			return markTime == null ? -1 : markTime - getOriginNanos();
+		}
+	}
+
+	/**
+	 * Getter Method: getPhases()
+	 *
+	 * i.e. every phase reached, in the order marked, with its time
+	 *      relative to process start
+	 */
+	public static Map<String, Long> getPhases() {
+		synchronized (PHASE_MARKS) {
+			Map<String, Long> phases = new LinkedHashMap<String, Long>();
+			long originNanos = getOriginNanos();
+			for (Map.Entry<String, Long> phaseMark : PHASE_MARKS.entrySet()) {
+				phases.put(phaseMark.getKey(), phaseMark.getValue() - originNanos);
+			}
+			return phases;
+		}
+	}
+
+	/**
+	 * Discards all recorded phases
+	 */
+	public static void reset() {
+		synchronized (PHASE_MARKS) {
+			PHASE_MARKS.clear();
+		}
+	}
+
+	/**
+	 * Elapsed realtime (i.e. time since boot, including deep sleep) in nanoseconds
+	 */
+	private static long elapsedRealtimeNanos() {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+			return SystemClock.elapsedRealtimeNanos();
+		}
+		return SystemClock.elapsedRealtime() * 1000000L;
+	}
+
+	/**
+	 * Determines the time from which phases are measured
+	 * (caller must hold the PHASE_MARKS lock)
+	 */
+	private static long getOriginNanos() {
+		Long processStart = PHASE_MARKS.get(PHASE_PROCESS_START);
+		if (processStart != null) {
+			return processStart;
+		}
+		long originNanos = Long.MAX_VALUE;
+		for (Long markTime : PHASE_MARKS.values()) {
+			originNanos = Math.min(originNanos, markTime);
+		}
+		return originNanos;
+	}
+
+} // end of class
@@ -0,0 +1,73 @@
+package ie.ucc.bis.supportinglife.ccm.rule.engine.utilities;
+
+import ie.ucc.bis.supportinglife.assessment.model.review.ReviewItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class derives a canonical fingerprint of the patient symptoms
+ * (review items) of a CCM assessment. Two assessments with the same
+ * fingerprint are assessed identically by the CCM rule engines.
+ *
+ * The fingerprint consists of one 'symptom id=answer' entry per review
+ * item, sorted by symptom id, so that the order in which symptoms were
+ * captured does not matter. The date of birth is replaced by the age
+ * of the patient in days, since it is the age, rather than the date,
+ * that the age-dependent rules depend on. The date of birth is parsed
+ * once per fingerprint (see CcmBirthDate).
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class CcmSymptomFingerprint {
+
+	private static final String AGE_IN_DAYS_PREFIX = "age_days:";
+
+	private final String birthDateSymptomId;
+
+	/**
+	 * Constructor
+	 *
+	 * @param birthDateSymptomId - symptom id of the date of birth review item
+	 */
+	public CcmSymptomFingerprint(String birthDateSymptomId) {
+		this.birthDateSymptomId = birthDateSymptomId;
+	}
+
+	/**
+	 * Determines the canonical fingerprint of the patient symptoms
+	 *
+	 * @param reviewItems - patient symptoms
+	 *
+	 * @return String - fingerprint
+	 */
+	public String fingerprint(List<ReviewItem> reviewItems) {
+		List<String> entries = new ArrayList<String>(reviewItems.size());
+		for (ReviewItem reviewItem : reviewItems) {
+			String answer = reviewItem.getDisplayValue();
+			if (birthDateSymptomId.equals(reviewItem.getSymptomId())) {
+				answer = toAgeInDays(answer);
+			}
+			entries.add(reviewItem.getSymptomId() + '=' + answer);
+		}
+		Collections.sort(entries);
+
+		StringBuilder fingerprint = new StringBuilder();
+		for (String entry : entries) {
+			fingerprint.append(entry).append(';');
+		}
+		return fingerprint.toString();
+	}
+
+	/**
+	 * Converts a date of birth to the age of the patient in days,
+	 * falling back to the date of birth itself if it cannot be parsed
+	 */
+	private String toAgeInDays(String birthDate) {
+		CcmBirthDate parsedBirthDate = CcmBirthDate.parse(birthDate);
+		return parsedBirthDate == null ? birthDate : AGE_IN_DAYS_PREFIX + parsedBirthDate.getAgeInDays();
+	}
+
+} // end of class
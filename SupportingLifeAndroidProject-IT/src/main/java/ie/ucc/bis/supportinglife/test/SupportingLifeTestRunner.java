@@ -0,0 +1,111 @@
+package ie.ucc.bis.supportinglife.test;
+
+import ie.ucc.bis.supportinglife.activity.CcmAssessmentActivity;
+import ie.ucc.bis.supportinglife.activity.HomeActivity;
+import ie.ucc.bis.supportinglife.ccm.rule.engine.utilities.CcmStartupTrace;
+
+import android.app.Activity;
+import android.app.Application;
+import android.app.Instrumentation;
+import android.os.Bundle;
+import android.test.InstrumentationTestRunner;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * This class runs the Supporting LIFE integration tests. It is the
+ * InstrumentationTestRunner, but keeps the instrumentation arguments
+ * (e.g. those set by the android-maven-plugin in pom.xml) so that test
+ * cases can read them.
+ *
+ * As the runner is loaded into the process of the application under
+ * test, it also traces the cold start of the application (see
+ * CcmStartupTrace) at the points the application itself passes through:
+ *
+ * 		-> process start - read from /proc/self/stat
+ * 		-> Application initialised - once Application.onCreate() returns
+ * 		-> HomeActivity first frame - first pre-draw of its decor view
+ * 		-> CcmAssessmentActivity first question - first pre-draw of its decor view
+ *
+ * Usage:
+ *
+ * 		String budgetMillis = SupportingLifeTestRunner.getArgument(getInstrumentation(), "ccmLatencyBudgetMillis");
+ *
+ * @author Tim O Sullivan
+ *
+ */
+public class SupportingLifeTestRunner extends InstrumentationTestRunner {
+
+	private Bundle arguments = new Bundle();
+
+	@Override
+	public void onCreate(Bundle arguments) {
+		CcmStartupTrace.markProcessStart();
+		if (arguments != null) {
+			this.arguments = new Bundle(arguments);
+		}
+		// note: starts the test run, so the arguments must be kept first
+		super.onCreate(arguments);
+	}
+
+	@Override
+	public void callApplicationOnCreate(Application application) {
+		super.callApplicationOnCreate(application);
+		CcmStartupTrace.mark(CcmStartupTrace.PHASE_APPLICATION_INIT);
+	}
+
+	@Override
+	public void callActivityOnResume(Activity activity) {
+		super.callActivityOnResume(activity);
+		if (activity instanceof HomeActivity) {
+			markFirstFrame(activity, CcmStartupTrace.PHASE_HOME_FIRST_FRAME);
+		} else if (activity instanceof CcmAssessmentActivity) {
+			markFirstFrame(activity, CcmStartupTrace.PHASE_CCM_FIRST_QUESTION);
+		}
+	}
+
+	/**
+	 * Marks the startup phase when the activity is next about to draw
+	 *
+	 * @param activity
+	 * @param phase - e.g. CcmStartupTrace.PHASE_HOME_FIRST_FRAME
+	 */
+	private void markFirstFrame(Activity activity, final String phase) {
+		if (CcmStartupTrace.isMarked(phase)) {
+			return;
+		}
+		final View decorView = activity.getWindow().getDecorView();
+		decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+			@Override
+			public boolean onPreDraw() {
+				decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+				CcmStartupTrace.mark(phase);
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Getter Method: getArguments()
+	 */
+	public Bundle getArguments() {
+		return arguments;
+	}
+
+	/**
+	 * Reads an instrumentation argument
+	 *
+	 * @param instrumentation - instrumentation running the test case
+	 * @param key - argument name
+	 *
+	 * @return String - argument value, or null when the argument was not set
+	 *                  or the tests are not run by this runner
+	 */
+	public static String getArgument(Instrumentation instrumentation, String key) {
+		if (instrumentation instanceof SupportingLifeTestRunner) {
+			return ((SupportingLifeTestRunner) instrumentation).getArguments().getString(key);
+		}
+		return null;
+	}
+
+} // end of class